@@ -0,0 +1,53 @@
+package com.hat_quest.bench;
+
+import com.hat_quest.sim.Bucket;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.SimConfig;
+
+import java.util.Random;
+
+// Reproducible drop populations for the benchmarks
+public final class DropField {
+    public static final float STEP = 1 / 60f;
+
+    // Where drops fall relative to the bucket
+    public enum Distribution {
+        CATCH_HEAVY, // Every drop falls through the bucket's column and gets caught
+        MISS_HEAVY // Every drop falls beside the bucket and leaves through the bottom
+    }
+
+    private DropField() {
+    }
+
+    // Pick a spawn column for the distribution
+    public static float column(Distribution distribution, Random random, SimConfig config, Bucket bucket) {
+        float size = config.dropSize;
+        if (distribution == Distribution.CATCH_HEAVY) {
+            // Any x in (bucket.x - size, bucket.x + width) overlaps horizontally
+            return bucket.getX() - size + 1 + random.nextFloat() * (bucket.getWidth() + size - 2);
+        }
+        float left = bucket.getX() - size; // Free space left of the bucket's column
+        float right = config.worldWidth - size - (bucket.getX() + bucket.getWidth()); // Free space right of it
+        float pick = random.nextFloat() * (left + right);
+        return pick < left ? pick : bucket.getX() + bucket.getWidth() + (pick - left);
+    }
+
+    // Fill the store with count drops spread evenly over the playfield height
+    public static void populate(DropStore drops, int count, Distribution distribution, Random random, SimConfig config, Bucket bucket) {
+        drops.clear();
+        float span = config.worldHeight + config.dropSize;
+        for (int i = 0; i < count; i++) {
+            float y = config.worldHeight - random.nextFloat() * span;
+            drops.spawn(DropStore.RAIN, column(distribution, random, config, bucket), y, config.dropVelocity);
+        }
+    }
+
+    // Precomputed spawn columns so refilling during a benchmark doesn't touch Random
+    public static float[] columns(int count, Distribution distribution, Random random, SimConfig config, Bucket bucket) {
+        float[] columns = new float[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = column(distribution, random, config, bucket);
+        }
+        return columns;
+    }
+}
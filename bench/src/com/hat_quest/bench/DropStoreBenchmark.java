@@ -0,0 +1,80 @@
+package com.hat_quest.bench;
+
+import com.hat_quest.sim.Bucket;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.SimConfig;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-tick cost of moving, culling and catching every live drop (what the three managers used to do).
+// The narrowPhaseTests counter shows how many exact overlap tests the grid broadphase let through.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DropStoreBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int drops;
+
+    @Param({"CATCH_HEAVY", "MISS_HEAVY"})
+    public DropField.Distribution distribution;
+
+    @Param({"1", "4"})
+    public int catchers;
+
+    // Reported next to the timings, averaged per benchmark operation
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long narrowPhaseTests;
+    }
+
+    private SimConfig config;
+    private Bucket bucket;
+    private Bucket[] buckets;
+    private DropStore store;
+    private float[] columns; // Respawn columns, reused round robin
+    private int nextColumn;
+    private int caught;
+    private final DropStore.CatchListener listener = (type, x, y, catcher) -> caught++;
+
+    @Setup
+    public void setup() {
+        config = new SimConfig();
+        bucket = new Bucket(config);
+        buckets = new Bucket[catchers];
+        buckets[0] = bucket;
+        for (int c = 1; c < catchers; c++) {
+            // Extra catchers spread across the playfield, away from the first
+            SimConfig spread = config.copy();
+            spread.bucketStartX = (config.worldWidth - config.bucketSize) * c / catchers;
+            buckets[c] = new Bucket(spread);
+        }
+        store = new DropStore(drops, config.dropSize, config.worldWidth, config.worldHeight);
+        Random random = new Random(42);
+        DropField.populate(store, drops, distribution, random, config, bucket);
+        columns = DropField.columns(4096, distribution, random, config, bucket);
+    }
+
+    // One tick at a steady population: update, then respawn at the top whatever was caught or missed
+    @Benchmark
+    public int updateTick(Counters counters, Blackhole blackhole) {
+        store.update(DropField.STEP, buckets, catchers, listener);
+        counters.narrowPhaseTests += store.getNarrowPhaseTests();
+        while (store.size() < drops) {
+            store.spawn(DropStore.RAIN, columns[nextColumn++ & 4095], config.worldHeight, config.dropVelocity);
+        }
+        blackhole.consume(caught);
+        return store.size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hat_quest.bench;
+
+import com.hat_quest.sim.Bucket;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.SimConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the exact drop-vs-bucket overlap test alone, run against every live drop with no broadphase
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OverlapBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int drops;
+
+    @Param({"CATCH_HEAVY", "MISS_HEAVY"})
+    public DropField.Distribution distribution;
+
+    private Bucket bucket;
+    private DropStore store;
+    private float size;
+
+    @Setup
+    public void setup() {
+        SimConfig config = new SimConfig();
+        bucket = new Bucket(config);
+        store = new DropStore(drops, config.dropSize, config.worldWidth, config.worldHeight);
+        size = config.dropSize;
+        DropField.populate(store, drops, distribution, new Random(42), config, bucket);
+    }
+
+    @Benchmark
+    public int overlapAll() {
+        int hits = 0;
+        for (int i = 0, n = store.size(); i < n; i++) {
+            if (bucket.overlaps(store.getX(i), store.getY(i), size, size)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,78 @@
+package com.hat_quest.bench;
+
+import com.hat_quest.sim.Bucket;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.ParallelDropUpdater;
+import com.hat_quest.sim.SimConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Scaling of the sliced drop update across cores; threads = 0 is the serial path for reference.
+// gradlew :bench:jmh -Pinclude=ParallelDrop
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelDropBenchmark {
+    @Param({"100000", "1000000"})
+    public int drops;
+
+    @Param({"CATCH_HEAVY", "MISS_HEAVY"})
+    public DropField.Distribution distribution;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private SimConfig config;
+    private Bucket[] buckets;
+    private DropStore store;
+    private ForkJoinPool pool;
+    private float[] columns;
+    private int nextColumn;
+    private int caught;
+    private final DropStore.CatchListener listener = (type, x, y, catcher) -> caught++;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new SimConfig();
+        buckets = new Bucket[] {new Bucket(config)};
+        store = new DropStore(drops, config.dropSize, config.worldWidth, config.worldHeight);
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            store.setSliceExecutor(new ParallelDropUpdater(pool), 0); // Always sliced, to see the split cost at every size
+        }
+        Random random = new Random(42);
+        DropField.populate(store, drops, distribution, random, config, buckets[0]);
+        columns = DropField.columns(4096, distribution, random, config, buckets[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    // One tick at a steady population, same shape as DropStoreBenchmark.updateTick
+    @Benchmark
+    public int updateTick(Blackhole blackhole) {
+        store.update(DropField.STEP, buckets, 1, listener);
+        while (store.size() < drops) {
+            store.spawn(DropStore.RAIN, columns[nextColumn++ & 4095], config.worldHeight, config.dropVelocity);
+        }
+        blackhole.consume(caught);
+        return store.size();
+    }
+}
@@ -0,0 +1,62 @@
+package com.hat_quest.bench;
+
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.RandomInput;
+import com.hat_quest.sim.SimConfig;
+import com.hat_quest.sim.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Whole-tick cost (input, bucket, drops, shield, spawning) and the cost of spawning a single drop
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int drops;
+
+    private World world;
+    private RandomInput input;
+
+    @Setup
+    public void setup() {
+        SimConfig config = new SimConfig();
+        config.startLives = Integer.MAX_VALUE; // Never end the run mid-measurement
+        config.maxLives = Integer.MAX_VALUE;
+        input = new RandomInput(42);
+        world = new World(config, input, 42);
+        DropStore store = world.getDrops();
+        while (store.size() < drops) {
+            world.spawnDrop(DropStore.RAIN);
+        }
+    }
+
+    // One full simulation tick, including the spawn checks
+    @Benchmark
+    public long step() {
+        input.next();
+        world.step();
+        DropStore store = world.getDrops();
+        while (store.size() < drops) {
+            world.spawnDrop(DropStore.RAIN);
+        }
+        return world.getTick();
+    }
+
+    // Spawning one drop, then removing it again to keep the population steady
+    @Benchmark
+    public int spawnDrop() {
+        DropStore store = world.getDrops();
+        world.spawnDrop(DropStore.ENEMY);
+        store.remove(store.size() - 1);
+        return store.size();
+    }
+}
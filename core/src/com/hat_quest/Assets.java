@@ -0,0 +1,70 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+
+// Application-scoped assets behind one reference-counted AssetManager.
+// MainGame holds one reference to the gameplay assets for the whole run and preloads them in the background;
+// each gameplay screen retains and releases its own reference, so entering or restarting play does no I/O.
+public class Assets {
+    public static final String ATLAS = "sprites.atlas"; // Every sprite and the HUD font page
+    public static final String FONT = "font.fnt"; // Glyph data for the font page packed in the atlas
+    public static final String DROP_SOUND = "drop.wav";
+    public static final String RAIN_MUSIC = "rain.mp3";
+
+    private final AssetManager manager;
+
+    public Assets() {
+        this.manager = new AssetManager();
+    }
+
+    // Queue one reference to every gameplay asset; loading happens in update()
+    public void queueGameplay() {
+        BitmapFontLoader.BitmapFontParameter fontParameter = new BitmapFontLoader.BitmapFontParameter();
+        fontParameter.atlasName = ATLAS; // Take the font page from the atlas instead of its own texture
+        manager.load(ATLAS, TextureAtlas.class);
+        manager.load(FONT, BitmapFont.class, fontParameter);
+        manager.load(DROP_SOUND, Sound.class);
+        manager.load(RAIN_MUSIC, Music.class);
+    }
+
+    // Take another reference to the gameplay assets; when they are already resident this only bumps reference counts
+    public void retainGameplay() {
+        queueGameplay();
+        manager.finishLoading();
+    }
+
+    // Give back a reference taken with retainGameplay()
+    public void releaseGameplay() {
+        manager.unload(FONT);
+        manager.unload(ATLAS);
+        manager.unload(DROP_SOUND);
+        manager.unload(RAIN_MUSIC);
+    }
+
+    // Continue background loading for up to the given time; returns true once everything queued is loaded
+    public boolean update(int millis) {
+        return manager.update(millis);
+    }
+
+    public boolean isFinished() {
+        return manager.isFinished();
+    }
+
+    // Loading progress in [0, 1]
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public <T> T get(String fileName, Class<T> type) {
+        return manager.get(fileName, type);
+    }
+
+    public void dispose() {
+        manager.dispose();
+    }
+}
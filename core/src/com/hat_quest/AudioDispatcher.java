@@ -0,0 +1,32 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+
+// Carries out the AudioManager's backend calls, either inline or on another thread.
+// Commands run in the order they were issued. The call counters cover render-thread time only,
+// so inline and threaded dispatchers can be compared directly.
+public interface AudioDispatcher {
+    void playSound(Sound sound, float volume);
+
+    void playMusic(Music music);
+
+    void pauseMusic(Music music);
+
+    void stopMusic(Music music);
+
+    void setMusicVolume(Music music, float volume);
+
+    void setMusicLooping(Music music, boolean looping);
+
+    long getCommandCount(); // Commands issued from the render thread
+
+    long getTotalCallNanos(); // Render-thread time spent issuing them
+
+    long getMaxCallNanos(); // Longest single command, as seen by the render thread
+
+    long getRejectedCount(); // Sound plays dropped because they could not be handed over in time; music is never dropped
+
+    // Finish outstanding commands and release any thread
+    void dispose();
+}
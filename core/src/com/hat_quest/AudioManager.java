@@ -0,0 +1,191 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Every sound and the music go through here: one master volume for all of it, a cap on how many voices
+// each sound may hold, and bursts of the same sound merged into one play so catches can't exhaust the
+// audio sources. Owned by MainGame; update() runs once per frame.
+// The backend calls themselves go through an AudioDispatcher, which may run them on another thread.
+public class AudioManager {
+    private final AudioDispatcher dispatcher;
+    private float masterVolume = 1f; // Scales every sound and the music
+    private Music music; // Current background music, or null
+    private float musicVolume = 1f; // Music volume before the master volume is applied
+    private final Array<SoundChannel> channels = new Array<>();
+
+    // Counters since startup, summed over every channel; requested = played + coalesced + dropped
+    private long requested; // play() calls
+    private long played; // Sounds handed to the backend
+    private long coalesced; // Requests merged into another play
+    private long dropped; // Plays skipped because the channel had no free voice
+
+    public AudioManager(AudioDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    // Get the channel for a sound, creating it the first time.
+    // maxVoices: plays of this sound allowed at once; voiceMillis: how long one play holds a voice;
+    // coalesceMillis: requests this soon after a play are merged into one follow-up play
+    public SoundChannel channel(Sound sound, int maxVoices, int voiceMillis, int coalesceMillis) {
+        for (int i = 0; i < channels.size; i++) {
+            if (channels.get(i).sound == sound) {
+                return channels.get(i);
+            }
+        }
+        SoundChannel channel = new SoundChannel(sound, maxVoices, voiceMillis, coalesceMillis);
+        channels.add(channel);
+        return channel;
+    }
+
+    // Play the merged follow-ups whose window has closed; call once per frame
+    public void update() {
+        long now = TimeUtils.nanoTime();
+        for (int i = 0; i < channels.size; i++) {
+            channels.get(i).flush(now);
+        }
+    }
+
+    public void setMasterVolume(float volume) {
+        masterVolume = Math.max(0, Math.min(1, volume));
+        applyMusicVolume();
+    }
+
+    public float getMasterVolume() {
+        return masterVolume;
+    }
+
+    // Route background music through the master volume
+    public void setMusic(Music newMusic, float volume, boolean looping) {
+        music = newMusic;
+        musicVolume = volume;
+        dispatcher.setMusicLooping(music, looping);
+        applyMusicVolume();
+    }
+
+    public void playMusic() {
+        if (music != null) {
+            dispatcher.playMusic(music);
+        }
+    }
+
+    public void pauseMusic() {
+        if (music != null) {
+            dispatcher.pauseMusic(music);
+        }
+    }
+
+    public void stopMusic() {
+        if (music != null) {
+            dispatcher.stopMusic(music);
+        }
+    }
+
+    private void applyMusicVolume() {
+        if (music != null) {
+            dispatcher.setMusicVolume(music, musicVolume * masterVolume);
+        }
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getPlayed() {
+        return played;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public AudioDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    // Let queued commands finish; call after the sounds are disposed, so their disposal runs too
+    public void dispose() {
+        dispatcher.dispose();
+    }
+
+    // One sound with its own voice cap and coalescing window
+    public class SoundChannel {
+        private static final float MERGED_BASE = 0.5f; // Volume share of a follow-up standing for one extra request
+        private static final float MERGED_STEP = 0.1f; // Added per further merged request, up to full volume
+
+        private final Sound sound;
+        private final long voiceNanos;
+        private final long coalesceNanos;
+        private final long[] voiceEnds; // When each voice is expected to free up
+        private long lastPlayTime; // Start of the current coalescing window, 0 when none is open
+        private int pending; // Requests merged since the last play
+        private float pendingVolume; // Loudest volume among them
+
+        private SoundChannel(Sound sound, int maxVoices, int voiceMillis, int coalesceMillis) {
+            this.sound = sound;
+            this.voiceNanos = voiceMillis * 1000000L;
+            this.coalesceNanos = coalesceMillis * 1000000L;
+            this.voiceEnds = new long[maxVoices];
+        }
+
+        public void play() {
+            play(1f);
+        }
+
+        // Play now, or merge into the follow-up if the sound played moments ago
+        public void play(float volume) {
+            requested++;
+            long now = TimeUtils.nanoTime();
+            if (lastPlayTime != 0 && now - lastPlayTime < coalesceNanos) {
+                pending++;
+                pendingVolume = Math.max(pendingVolume, volume);
+                coalesced++;
+                return;
+            }
+            start(volume, now);
+        }
+
+        // Once the window closes, play everything merged in it as one louder-for-more sound
+        private void flush(long now) {
+            if (lastPlayTime == 0 || now - lastPlayTime < coalesceNanos) {
+                return;
+            }
+            if (pending == 0) {
+                lastPlayTime = 0;
+                return;
+            }
+            float volume = pendingVolume * Math.min(1, MERGED_BASE + MERGED_STEP * (pending - 1));
+            coalesced--; // The follow-up itself is a play, not a merged request
+            pending = 0;
+            pendingVolume = 0;
+            start(volume, now);
+        }
+
+        private void start(float volume, long now) {
+            lastPlayTime = now;
+            int voice = freeVoice(now);
+            if (voice < 0) {
+                dropped++;
+                return;
+            }
+            dispatcher.playSound(sound, volume * masterVolume);
+            voiceEnds[voice] = now + voiceNanos;
+            played++;
+        }
+
+        private int freeVoice(long now) {
+            for (int v = 0; v < voiceEnds.length; v++) {
+                if (voiceEnds[v] <= now) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.hat_quest.sim.DropStore;
+
+// Draws drops as SpriteBatch quads: four vertices built on the CPU per drop, works everywhere
+public class BatchDropRenderer implements DropRenderer {
+    private final TextureRegion[] images; // Drop sprites indexed by drop type
+
+    public BatchDropRenderer(TextureRegion[] images) {
+        this.images = images;
+    }
+
+    @Override
+    public void draw(SpriteBatch batch, DropStore drops, float alpha) {
+        for (int i = 0, n = drops.size(); i < n; i++) {
+            batch.draw(images[drops.getType(i)], drops.getX(i), drops.getY(i, alpha));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "batch";
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing owned
+    }
+}
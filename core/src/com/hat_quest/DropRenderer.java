@@ -0,0 +1,33 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.hat_quest.sim.DropStore;
+
+// Draws every live drop between the batch's begin() and end()
+public interface DropRenderer {
+    void draw(SpriteBatch batch, DropStore drops, float alpha);
+
+    String getName();
+
+    void dispose();
+
+    // The instanced renderer when asked for and GL3 instancing is available, SpriteBatch otherwise
+    static DropRenderer create(boolean instanced, TextureRegion[] images) {
+        if (instanced) {
+            if (Gdx.gl30 == null) {
+                Gdx.app.log("DropRenderer", "GL3 is not available, drawing drops with SpriteBatch");
+            } else {
+                try {
+                    return new InstancedDropRenderer(images);
+                } catch (Exception e) {
+                    // Log the exception and fall back to the batch
+                    System.err.println("Error during instanced renderer setup: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+        return new BatchDropRenderer(images);
+    }
+}
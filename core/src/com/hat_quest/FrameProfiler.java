@@ -0,0 +1,195 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.hat_quest.sim.DropStore;
+import java.util.Arrays;
+
+// Keeps the last few seconds of per-frame timings and counters in fixed arrays, so recording allocates nothing
+public class FrameProfiler {
+    public static final int INPUT = 0;
+    public static final int SIMULATE = 1;
+    public static final int RENDER = 2; // Includes the overlay when it is shown
+    public static final int OVERLAY = 3;
+    public static final int PHASE_COUNT = 4;
+    private static final String[] PHASE_NAMES = {"input", "simulate", "render", "overlay"};
+
+    public static final int HISTORY = 600; // Frames kept, ten seconds at 60 FPS
+
+    private final GcStats gcStats; // Null where the platform has no GC counters
+
+    // Ring buffers indexed by frame slot
+    private final long[] frameNanos = new long[HISTORY]; // Time from the end of the previous frame to the end of this one
+    private final long[][] phaseNanos = new long[PHASE_COUNT][HISTORY];
+    private final int[] ticks = new int[HISTORY];
+    private final int[] renderCalls = new int[HISTORY];
+    private final int[] events = new int[HISTORY]; // Gameplay events drained
+    private final int[][] dropCounts = new int[DropStore.TYPE_COUNT][HISTORY];
+    private final long[] gcCounts = new long[HISTORY];
+    private int next; // Slot the next frame is written to
+    private int count; // Frames currently held
+    private long totalFrames; // Frames recorded since startup
+
+    // The frame being measured
+    private final long[] phaseStart = new long[PHASE_COUNT];
+    private final long[] currentPhase = new long[PHASE_COUNT];
+    private long lastFrameEnd; // 0 until the first frame after a reset has ended
+
+    // Summary of the history, refreshed by computeStats()
+    private final long[] sorted = new long[HISTORY];
+    private final long[] phaseAverage = new long[PHASE_COUNT];
+    private long p50, p99, max;
+
+    public FrameProfiler(GcStats gcStats) {
+        this.gcStats = gcStats;
+    }
+
+    public void begin(int phase) {
+        phaseStart[phase] = TimeUtils.nanoTime();
+    }
+
+    public void end(int phase) {
+        currentPhase[phase] += TimeUtils.nanoTime() - phaseStart[phase];
+    }
+
+    // Close the frame and store it; the first frame after a reset only starts the frame clock
+    public void endFrame(int frameTicks, int frameRenderCalls, int frameEvents, DropStore drops) {
+        long now = TimeUtils.nanoTime();
+        if (lastFrameEnd != 0) {
+            int slot = next;
+            frameNanos[slot] = now - lastFrameEnd;
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                phaseNanos[phase][slot] = currentPhase[phase];
+            }
+            ticks[slot] = frameTicks;
+            renderCalls[slot] = frameRenderCalls;
+            events[slot] = frameEvents;
+            for (byte type = 0; type < DropStore.TYPE_COUNT; type++) {
+                dropCounts[type][slot] = drops.count(type);
+            }
+            gcCounts[slot] = gcStats != null ? gcStats.getCollectionCount() : -1;
+            next = (next + 1) % HISTORY;
+            if (count < HISTORY) {
+                count++;
+            }
+            totalFrames++;
+        }
+        Arrays.fill(currentPhase, 0);
+        lastFrameEnd = now;
+    }
+
+    // Forget the frame clock, so time spent paused or on another screen is not counted as a frame
+    public void reset() {
+        lastFrameEnd = 0;
+        Arrays.fill(currentPhase, 0);
+    }
+
+    // Work out percentiles and phase averages over the history
+    public void computeStats() {
+        if (count == 0) {
+            return;
+        }
+        System.arraycopy(frameNanos, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        p50 = sorted[(count - 1) / 2];
+        p99 = sorted[(int) ((count - 1) * 0.99f)];
+        max = sorted[count - 1];
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += phaseNanos[phase][i];
+            }
+            phaseAverage[phase] = sum / count;
+        }
+    }
+
+    public long getP50Nanos() {
+        return p50;
+    }
+
+    public long getP99Nanos() {
+        return p99;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public long getPhaseAverageNanos(int phase) {
+        return phaseAverage[phase];
+    }
+
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    // Values of the most recent frame
+    public int getLastTicks() {
+        return ticks[lastSlot()];
+    }
+
+    public int getLastRenderCalls() {
+        return renderCalls[lastSlot()];
+    }
+
+    public int getLastEvents() {
+        return events[lastSlot()];
+    }
+
+    public int getLastDropCount(byte type) {
+        return dropCounts[type][lastSlot()];
+    }
+
+    public GcStats getGcStats() {
+        return gcStats;
+    }
+
+    private int lastSlot() {
+        return (next + HISTORY - 1) % HISTORY;
+    }
+
+    // Write the history, oldest frame first, as CSV with times in milliseconds
+    public void writeCsv(FileHandle file) {
+        StringBuilder csv = new StringBuilder(128 * (count + 1));
+        csv.append("frame,frame_ms");
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            csv.append(',').append(PHASE_NAMES[phase]).append("_ms");
+        }
+        csv.append(",ticks,render_calls,events,rain_drops,enemy_drops,bonus_drops,gc_count\n");
+        int first = (next + HISTORY - count) % HISTORY;
+        for (int i = 0; i < count; i++) {
+            int slot = (first + i) % HISTORY;
+            csv.append(totalFrames - count + i).append(',');
+            appendMillis(csv, frameNanos[slot], 3);
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                csv.append(',');
+                appendMillis(csv, phaseNanos[phase][slot], 3);
+            }
+            csv.append(',').append(ticks[slot]).append(',').append(renderCalls[slot]).append(',').append(events[slot]);
+            for (int type = 0; type < DropStore.TYPE_COUNT; type++) {
+                csv.append(',').append(dropCounts[type][slot]);
+            }
+            csv.append(',').append(gcCounts[slot]).append('\n');
+        }
+        file.writeString(csv.toString(), false);
+    }
+
+    // Append nanoseconds as milliseconds with a fixed number of decimals, without going through float formatting
+    public static StringBuilder appendMillis(StringBuilder out, long nanos, int decimals) {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        long scaled = (nanos * scale + 500000) / 1000000; // Rounded to the last decimal
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > fraction && digit > 1; digit /= 10) {
+                out.append('0'); // Leading zeros of the fraction
+            }
+            out.append(fraction);
+        }
+        return out;
+    }
+}
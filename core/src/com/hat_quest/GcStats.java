@@ -0,0 +1,10 @@
+package com.hat_quest;
+
+// Garbage collector counters, provided by the platform launcher where the runtime exposes them
+public interface GcStats {
+    // Collections since startup, summed over every collector
+    long getCollectionCount();
+
+    // Time spent collecting since startup, in milliseconds
+    long getCollectionMillis();
+}
@@ -0,0 +1,53 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import com.hat_quest.sim.InputSource;
+
+// Feeds keyboard state into the simulation
+public class GdxInputSource implements InputSource {
+    // Key presses seen by poll() and held until a tick consumes them, so a press is never
+    // lost on a frame that runs no ticks nor repeated on a frame that runs several
+    private boolean jumpLatched;
+    private boolean shieldLatched;
+
+    // Record this frame's key presses; call once per render frame
+    public void poll() {
+        if (Gdx.input.isKeyJustPressed(Keys.SPACE)) {
+            jumpLatched = true;
+        }
+        if (Gdx.input.isKeyJustPressed(Keys.F)) {
+            shieldLatched = true;
+        }
+    }
+
+    // Forget any pending presses
+    public void reset() {
+        jumpLatched = false;
+        shieldLatched = false;
+    }
+
+    @Override
+    public boolean isLeftPressed() {
+        return Gdx.input.isKeyPressed(Keys.A);
+    }
+
+    @Override
+    public boolean isRightPressed() {
+        return Gdx.input.isKeyPressed(Keys.D);
+    }
+
+    @Override
+    public boolean isJumpJustPressed() {
+        boolean pressed = jumpLatched;
+        jumpLatched = false;
+        return pressed;
+    }
+
+    @Override
+    public boolean isShieldJustPressed() {
+        boolean pressed = shieldLatched;
+        shieldLatched = false;
+        return pressed;
+    }
+}
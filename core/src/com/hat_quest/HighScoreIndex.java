@@ -0,0 +1,91 @@
+package com.hat_quest;
+
+// The best runs kept sorted in parallel arrays, highest score first, so top-N and best queries are array reads.
+// On its own it keeps scores for the session only, which is what platforms without a persistent store get.
+public class HighScoreIndex implements HighScoreStore {
+    public static final int CAPACITY = 100; // Best runs held; equal scores rank by timestamp, oldest first
+
+    private final int[] scores = new int[CAPACITY];
+    private final int[] durations = new int[CAPACITY];
+    private final long[] seeds = new long[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    private int size;
+    private long runCount;
+
+    @Override
+    public void record(int score, int durationMillis, long seed, long timestamp) {
+        insert(score, durationMillis, seed, timestamp);
+        runCount++;
+    }
+
+    // Add a run to the ranking without counting it, for stores that count runs themselves
+    public void insert(int score, int durationMillis, long seed, long timestamp) {
+        if (size == CAPACITY && !ranksAhead(score, timestamp, CAPACITY - 1)) {
+            return; // Not good enough to be held
+        }
+        int i = Math.min(size, CAPACITY - 1);
+        while (i > 0 && ranksAhead(score, timestamp, i - 1)) {
+            scores[i] = scores[i - 1];
+            durations[i] = durations[i - 1];
+            seeds[i] = seeds[i - 1];
+            timestamps[i] = timestamps[i - 1];
+            i--;
+        }
+        scores[i] = score;
+        durations[i] = durationMillis;
+        seeds[i] = seed;
+        timestamps[i] = timestamp;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    // Whether a run ranks ahead of the held run at i; JournalHighScoreStore sorts its snapshot the same way
+    private boolean ranksAhead(int score, long timestamp, int i) {
+        return score > scores[i] || score == scores[i] && timestamp < timestamps[i];
+    }
+
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    @Override
+    public long getRunCount() {
+        return runCount;
+    }
+
+    @Override
+    public int getTopCount() {
+        return size;
+    }
+
+    @Override
+    public int getTopScore(int i) {
+        return scores[i];
+    }
+
+    @Override
+    public int getTopDuration(int i) {
+        return durations[i];
+    }
+
+    @Override
+    public long getTopSeed(int i) {
+        return seeds[i];
+    }
+
+    @Override
+    public long getTopTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    @Override
+    public int getBest() {
+        return size > 0 ? scores[0] : 0;
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing held outside the heap
+    }
+}
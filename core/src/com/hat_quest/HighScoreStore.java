@@ -0,0 +1,26 @@
+package com.hat_quest;
+
+// Finished runs and the best of them; platforms decide where the runs are kept
+public interface HighScoreStore {
+    // Add a finished run
+    void record(int score, int durationMillis, long seed, long timestamp);
+
+    // Runs recorded so far, on this device where the store persists them
+    long getRunCount();
+
+    // Best runs held for queries, highest score first; read index 0 to getTopCount() - 1
+    int getTopCount();
+
+    int getTopScore(int i);
+
+    int getTopDuration(int i);
+
+    long getTopSeed(int i);
+
+    long getTopTimestamp(int i);
+
+    // Highest score ever recorded, 0 before the first run
+    int getBest();
+
+    void dispose();
+}
@@ -0,0 +1,115 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+// One line of on-screen text that is laid out only when its content changes, so drawing it allocates nothing
+public class HudText {
+    private final BitmapFont font;
+    private final BitmapFontCache cache; // Vertices of the laid out text, redrawn as is every frame
+    private final GlyphLayout layout = new GlyphLayout();
+    private final StringBuilder text = new StringBuilder(32);
+    private final Color color = new Color(Color.WHITE);
+    private float x, y;
+    private boolean dirty = true; // Text or position changed since the last layout
+
+    // Last content shown, so unchanged updates are skipped
+    private boolean fixed; // True when showing setText content rather than a value
+    private String prefix, suffix;
+    private long value;
+
+    public HudText(BitmapFont font, float x, float y) {
+        this.font = font;
+        this.cache = font.newFontCache();
+        this.x = x;
+        this.y = y;
+    }
+
+    // Show fixed text
+    public void setText(String newText) {
+        if (fixed && prefix == newText) {
+            return;
+        }
+        fixed = true;
+        prefix = newText;
+        suffix = null;
+        text.setLength(0);
+        text.append(newText);
+        dirty = true;
+    }
+
+    // Show text assembled by the caller, laying it out again only if it differs from what is shown
+    public void setText(CharSequence newText) {
+        if (fixed && prefix == null && contentEquals(newText)) {
+            return;
+        }
+        fixed = true;
+        prefix = null;
+        suffix = null;
+        text.setLength(0);
+        text.append(newText);
+        dirty = true;
+    }
+
+    private boolean contentEquals(CharSequence other) {
+        if (text.length() != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Show prefix + value + suffix, rebuilding only when one of them changed
+    public void setValue(String newPrefix, long newValue, String newSuffix) {
+        if (!fixed && newValue == value && newPrefix == prefix && newSuffix == suffix) {
+            return;
+        }
+        fixed = false;
+        prefix = newPrefix;
+        value = newValue;
+        suffix = newSuffix;
+        text.setLength(0);
+        text.append(newPrefix).append(newValue);
+        if (newSuffix != null) {
+            text.append(newSuffix);
+        }
+        dirty = true;
+    }
+
+    public void setPosition(float newX, float newY) {
+        if (newX != x || newY != y) {
+            x = newX;
+            y = newY;
+            dirty = true;
+        }
+    }
+
+    // Recolor the text without laying it out again
+    public void setColor(float r, float g, float b, float a) {
+        if (color.r == r && color.g == g && color.b == b && color.a == a) {
+            return;
+        }
+        color.set(r, g, b, a);
+        if (!dirty) {
+            cache.setColors(color);
+        }
+    }
+
+    public void draw(Batch batch) {
+        if (dirty) {
+            layout.setText(font, text);
+            cache.clear();
+            cache.addText(layout, x, y);
+            cache.setColors(color);
+            dirty = false;
+        }
+        cache.draw(batch);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Calls the audio backend directly on the render thread; the fallback where threads are unavailable (html)
+public class InlineAudioDispatcher implements AudioDispatcher {
+    private long commands;
+    private long totalNanos;
+    private long maxNanos;
+    private long start; // When the command in progress began
+
+    private void begin() {
+        start = TimeUtils.nanoTime();
+    }
+
+    private void end() {
+        long nanos = TimeUtils.nanoTime() - start;
+        commands++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    @Override
+    public void playSound(Sound sound, float volume) {
+        begin();
+        sound.play(volume);
+        end();
+    }
+
+    @Override
+    public void playMusic(Music music) {
+        begin();
+        music.play();
+        end();
+    }
+
+    @Override
+    public void pauseMusic(Music music) {
+        begin();
+        music.pause();
+        end();
+    }
+
+    @Override
+    public void stopMusic(Music music) {
+        begin();
+        music.stop();
+        end();
+    }
+
+    @Override
+    public void setMusicVolume(Music music, float volume) {
+        begin();
+        music.setVolume(volume);
+        end();
+    }
+
+    @Override
+    public void setMusicLooping(Music music, boolean looping) {
+        begin();
+        music.setLooping(looping);
+        end();
+    }
+
+    @Override
+    public long getCommandCount() {
+        return commands;
+    }
+
+    @Override
+    public long getTotalCallNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public long getMaxCallNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return 0; // Every command runs
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing outstanding
+    }
+}
@@ -0,0 +1,190 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.hat_quest.sim.DropStore;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+// Draws every drop with one instanced draw call. The drop store's x, y, previous y and type arrays are each
+// bulk-copied into their own instance buffer as they are, and the vertex shader expands one shared quad per
+// drop, blending between ticks and picking the sprite by type. Needs GL3; see DropRenderer.create().
+public class InstancedDropRenderer implements DropRenderer {
+    private static final String VERTEX_SHADER = ""
+        + "attribute vec2 a_corner;\n"
+        + "attribute float a_x;\n"
+        + "attribute float a_y;\n"
+        + "attribute float a_prevY;\n"
+        + "attribute float a_type;\n"
+        + "uniform mat4 u_projTrans;\n"
+        + "uniform float u_alpha;\n"
+        + "uniform vec4 u_regions[" + DropStore.TYPE_COUNT + "];\n" // u, v, u2, v2 per drop type
+        + "uniform vec2 u_sizes[" + DropStore.TYPE_COUNT + "];\n"
+        + "varying vec2 v_texCoords;\n"
+        + "void main() {\n"
+        + "    int type = int(a_type);\n"
+        + "    vec4 region = u_regions[type];\n"
+        + "    v_texCoords = mix(region.xw, region.zy, a_corner);\n" // v runs top down in the atlas
+        + "    vec2 origin = vec2(a_x, mix(a_prevY, a_y, u_alpha));\n"
+        + "    gl_Position = u_projTrans * vec4(origin + a_corner * u_sizes[type], 0.0, 1.0);\n"
+        + "}\n";
+
+    private static final String FRAGMENT_SHADER = ""
+        + "#ifdef GL_ES\n"
+        + "precision mediump float;\n"
+        + "#endif\n"
+        + "varying vec2 v_texCoords;\n"
+        + "uniform sampler2D u_texture;\n"
+        + "void main() {\n"
+        + "    gl_FragColor = texture2D(u_texture, v_texCoords);\n"
+        + "}\n";
+
+    private final ShaderProgram shader;
+    private final Texture texture; // Atlas page every drop sprite lives on
+    private final float[] regions = new float[DropStore.TYPE_COUNT * 4];
+    private final float[] sizes = new float[DropStore.TYPE_COUNT * 2];
+
+    private final int vertexArray;
+    private final int cornerBuffer; // The shared quad, as a triangle strip
+    private final int xBuffer, yBuffer, prevYBuffer, typeBuffer; // One instance attribute each
+    private FloatBuffer floatStaging; // Direct memory the arrays are copied through
+    private ByteBuffer typeStaging;
+
+    public InstancedDropRenderer(TextureRegion[] images) {
+        ShaderProgram.pedantic = false;
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            String log = shader.getLog();
+            shader.dispose();
+            throw new GdxRuntimeException("Drop shader failed to compile: " + log);
+        }
+        texture = images[0].getTexture();
+        for (int type = 0; type < DropStore.TYPE_COUNT; type++) {
+            TextureRegion image = images[type];
+            if (image.getTexture() != texture) {
+                shader.dispose();
+                throw new GdxRuntimeException("Drop sprites must share one atlas page");
+            }
+            regions[type * 4] = image.getU();
+            regions[type * 4 + 1] = image.getV();
+            regions[type * 4 + 2] = image.getU2();
+            regions[type * 4 + 3] = image.getV2();
+            sizes[type * 2] = image.getRegionWidth();
+            sizes[type * 2 + 1] = image.getRegionHeight();
+        }
+
+        GL30 gl = Gdx.gl30;
+        int[] names = new int[1];
+        gl.glGenVertexArrays(1, names, 0);
+        vertexArray = names[0];
+        gl.glBindVertexArray(vertexArray);
+
+        cornerBuffer = gl.glGenBuffer();
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, cornerBuffer);
+        FloatBuffer corners = BufferUtils.newFloatBuffer(8);
+        corners.put(new float[] {0, 0, 1, 0, 0, 1, 1, 1}).flip();
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, 8 * 4, corners, GL20.GL_STATIC_DRAW);
+        bindAttribute("a_corner", 2, GL20.GL_FLOAT, 0);
+
+        xBuffer = instanceAttribute("a_x", GL20.GL_FLOAT);
+        yBuffer = instanceAttribute("a_y", GL20.GL_FLOAT);
+        prevYBuffer = instanceAttribute("a_prevY", GL20.GL_FLOAT);
+        typeBuffer = instanceAttribute("a_type", GL20.GL_UNSIGNED_BYTE); // Converted to float by the GPU
+
+        gl.glBindVertexArray(0);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        ensureCapacity(1024);
+    }
+
+    private int instanceAttribute(String name, int type) {
+        int buffer = Gdx.gl.glGenBuffer();
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffer);
+        bindAttribute(name, 1, type, 1); // One value per instance
+        return buffer;
+    }
+
+    // Point the attribute at the bound buffer; false if the compiler optimized it away
+    private boolean bindAttribute(String name, int components, int type, int divisor) {
+        int location = shader.getAttributeLocation(name);
+        if (location < 0) {
+            return false;
+        }
+        Gdx.gl.glEnableVertexAttribArray(location);
+        Gdx.gl.glVertexAttribPointer(location, components, type, false, 0, 0);
+        Gdx.gl30.glVertexAttribDivisor(location, divisor);
+        return true;
+    }
+
+    private void ensureCapacity(int drops) {
+        if (floatStaging != null && floatStaging.capacity() >= drops) {
+            return;
+        }
+        int capacity = Math.max(drops, floatStaging == null ? 0 : floatStaging.capacity() * 2);
+        floatStaging = BufferUtils.newFloatBuffer(capacity);
+        typeStaging = BufferUtils.newByteBuffer(capacity);
+    }
+
+    @Override
+    public void draw(SpriteBatch batch, DropStore drops, float alpha) {
+        int count = drops.size();
+        if (count == 0) {
+            return;
+        }
+        batch.flush(); // Keep what the batch already holds underneath the drops
+        ensureCapacity(count);
+        upload(xBuffer, drops.getXArray(), count);
+        upload(yBuffer, drops.getYArray(), count);
+        upload(prevYBuffer, drops.getPrevYArray(), count);
+        typeStaging.clear();
+        typeStaging.put(drops.getTypeArray(), 0, count).flip();
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, typeBuffer);
+        Gdx.gl.glBufferData(GL20.GL_ARRAY_BUFFER, count, typeStaging, GL20.GL_STREAM_DRAW);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        texture.bind(0); // The same page the batch draws everything else from, so its texture state stays valid
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", batch.getProjectionMatrix());
+        shader.setUniformf("u_alpha", alpha);
+        shader.setUniform4fv("u_regions", regions, 0, regions.length);
+        shader.setUniform2fv("u_sizes", sizes, 0, sizes.length);
+        shader.setUniformi("u_texture", 0);
+        Gdx.gl30.glBindVertexArray(vertexArray);
+        Gdx.gl30.glDrawArraysInstanced(GL20.GL_TRIANGLE_STRIP, 0, 4, count);
+        Gdx.gl30.glBindVertexArray(0);
+
+        batch.getShader().bind(); // The batch only binds its shader in begin(), so hand it back
+    }
+
+    // Orphan the buffer and refill it from the array with one bulk copy, no per-drop work
+    private void upload(int buffer, float[] values, int count) {
+        BufferUtils.copy(values, floatStaging, count, 0);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffer);
+        Gdx.gl.glBufferData(GL20.GL_ARRAY_BUFFER, count * 4, floatStaging, GL20.GL_STREAM_DRAW);
+    }
+
+    @Override
+    public String getName() {
+        return "instanced";
+    }
+
+    @Override
+    public void dispose() {
+        Gdx.gl30.glDeleteVertexArrays(1, new int[] {vertexArray}, 0);
+        Gdx.gl.glDeleteBuffer(cornerBuffer);
+        Gdx.gl.glDeleteBuffer(xBuffer);
+        Gdx.gl.glDeleteBuffer(yBuffer);
+        Gdx.gl.glDeleteBuffer(prevYBuffer);
+        Gdx.gl.glDeleteBuffer(typeBuffer);
+        shader.dispose();
+    }
+}
@@ -0,0 +1,162 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Sends finished runs to the leaderboard server (the server module) without the render thread ever waiting on
+// the network. Runs wait in a small queue and go out together, one request at a time, through Gdx.net, which does
+// the I/O on its own thread (in the browser it is asynchronous anyway); update() picks up the reply on the render
+// thread. Failed requests are retried after a delay that doubles each time. The server keeps each player's best
+// score, so a retry after a lost reply cannot count a run twice, and when the queue is full the lowest waiting
+// run is the one that goes.
+public class LeaderboardClient {
+    public static final int QUEUE_CAPACITY = 64;
+    public static final int MAX_BATCH = 16; // Runs per request; the server accepts up to 256
+
+    private static final int TIMEOUT_MILLIS = 5000;
+    private static final long RETRY_MILLIS = 1000; // Doubled after every failure in a row
+    private static final long MAX_RETRY_MILLIS = 60000;
+
+    private final String url;
+    private final String player;
+    private final int[] queue = new int[QUEUE_CAPACITY]; // Scores waiting, oldest at head
+    private int head;
+    private int size;
+    private int sending; // Runs at the head of the queue in the request in flight, 0 when none is
+    private int failures; // Failed requests in a row
+    private long retryAt; // TimeUtils.millis() before which nothing is sent
+    private long dropped; // Runs lost to a full queue or rejected by the server
+    private final StringBuilder body = new StringBuilder(MAX_BATCH * 48);
+    private int rank; // The player's rank after the last accepted batch, 0 until one is
+    private int playerCount;
+
+    // Reply handed over from the network thread
+    private volatile boolean replied;
+    private volatile int replyStatus; // HTTP status, or -1 when the request failed outright
+    private volatile String replyBody;
+
+    private final Net.HttpResponseListener listener = new Net.HttpResponseListener() {
+        @Override
+        public void handleHttpResponse(Net.HttpResponse response) {
+            replyBody = response.getResultAsString();
+            replyStatus = response.getStatus().getStatusCode();
+            replied = true;
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            replyBody = t.getMessage();
+            replyStatus = -1;
+            replied = true;
+        }
+
+        @Override
+        public void cancelled() {
+            replyBody = "cancelled";
+            replyStatus = -1;
+            replied = true;
+        }
+    };
+
+    // url is the server root, for example http://localhost:8787; player is 1 to 32 letters, digits, '-' or '_'
+    public LeaderboardClient(String url, String player) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.player = player;
+    }
+
+    // Queue a finished run; never blocks
+    public void submit(int score) {
+        if (size < QUEUE_CAPACITY) {
+            queue[(head + size++) % QUEUE_CAPACITY] = score;
+            return;
+        }
+        // Full: only the player's best counts on the server, so give up the lowest run not already in flight
+        int lowest = -1;
+        for (int i = sending; i < size; i++) {
+            if (lowest < 0 || queue[(head + i) % QUEUE_CAPACITY] < queue[(head + lowest) % QUEUE_CAPACITY]) {
+                lowest = i;
+            }
+        }
+        dropped++;
+        if (lowest >= 0 && queue[(head + lowest) % QUEUE_CAPACITY] < score) {
+            queue[(head + lowest) % QUEUE_CAPACITY] = score;
+        }
+    }
+
+    // Take in the last reply and send the next batch when one is due; call once per frame on the render thread
+    public void update() {
+        if (replied) {
+            replied = false;
+            handleReply(replyStatus, replyBody);
+        }
+        if (sending == 0 && size > 0 && TimeUtils.millis() >= retryAt) {
+            send();
+        }
+    }
+
+    private void send() {
+        sending = Math.min(size, MAX_BATCH);
+        body.setLength(0);
+        for (int i = 0; i < sending; i++) {
+            body.append(player).append(' ').append(queue[(head + i) % QUEUE_CAPACITY]).append('\n');
+        }
+        Net.HttpRequest request = new Net.HttpRequest(Net.HttpMethods.POST);
+        request.setUrl(url + "/scores");
+        request.setHeader("Content-Type", "text/plain");
+        request.setContent(body.toString());
+        request.setTimeOut(TIMEOUT_MILLIS);
+        Gdx.net.sendHttpRequest(request, listener);
+    }
+
+    private void handleReply(int status, String text) {
+        if (status == 200) {
+            // The player count, then the player's rank after each run
+            String[] lines = text.trim().split("\n");
+            try {
+                playerCount = Integer.parseInt(lines[0].trim());
+                rank = Integer.parseInt(lines[lines.length - 1].trim());
+            } catch (NumberFormatException e) {
+                Gdx.app.error("LeaderboardClient", "Unexpected reply: " + text);
+            }
+            remove(sending);
+            failures = 0;
+        } else if (status >= 400 && status < 500) {
+            // Sending the same batch again would be refused again
+            Gdx.app.error("LeaderboardClient", "Server refused " + sending + " runs: " + status + " " + text);
+            dropped += sending;
+            remove(sending);
+            failures = 0;
+        } else {
+            failures++;
+            long delay = Math.min(RETRY_MILLIS << Math.min(failures - 1, 16), MAX_RETRY_MILLIS);
+            retryAt = TimeUtils.millis() + delay;
+            Gdx.app.log("LeaderboardClient", "Submitting failed (" + status + " " + text + "), retrying in "
+                + delay + " ms");
+        }
+        sending = 0;
+    }
+
+    private void remove(int count) {
+        head = (head + count) % QUEUE_CAPACITY;
+        size -= count;
+    }
+
+    // The player's rank after the last accepted batch, 0 before any was accepted
+    public int getRank() {
+        return rank;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    // Runs waiting to be sent, including any in flight
+    public int getQueued() {
+        return size;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
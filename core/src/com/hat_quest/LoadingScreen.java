@@ -0,0 +1,79 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+// Shown when Play is pressed before the background preload has finished; starts the game once it has
+public class LoadingScreen implements Screen {
+    private final MainGame game; // Reference to the main game class
+    private final SpriteBatch batch; // SpriteBatch used for drawing
+    private final BitmapFont font; // Default font, available before any asset is loaded
+    private final HudText progressText; // "Loading... N%", relaid out only when the percentage changes
+
+    public LoadingScreen(final MainGame game) {
+        this.game = game;
+        this.batch = game.getBatch();
+        this.font = new BitmapFont();
+        this.progressText = new HudText(font, 340, 240);
+    }
+
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(null); // Ignore input while loading
+    }
+
+    @Override
+    public void render(float delta) {
+        try {
+            // MainGame keeps pumping the AssetManager; this screen only reports on it
+            if (game.getAssets().isFinished()) {
+                game.startGame();
+                return;
+            }
+            Gdx.gl.glClearColor(0, 0, 0.2f, 1);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            progressText.setValue("Loading... ", (int) (game.getAssets().getProgress() * 100), "%");
+            batch.begin();
+            progressText.draw(batch);
+            batch.end();
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during rendering: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        // Handle screen resizing if necessary
+    }
+
+    @Override
+    public void pause() {
+        // Handle screen pause if necessary
+    }
+
+    @Override
+    public void resume() {
+        // Handle screen resume if necessary
+    }
+
+    @Override
+    public void hide() {
+        // Handle screen hide if necessary
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            font.dispose();
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during dispose: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,17 +1,78 @@
 package com.hat_quest;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.SimConfig;
+import com.hat_quest.sim.SpawnSchedule;
 
 // Main game class that initializes and manages the game screens
 public class MainGame extends Game {
+    // Player data (scores, replays, profiles) goes here in external storage, the user's home on desktop, so none
+    // of it lands in the assets the build packs into the jar
+    public static final String DATA_DIRECTORY = ".bucket-jump-adventure/";
+
+    private static final int ASSET_BUDGET_MILLIS = 4; // Render-thread time per frame spent finishing background loads
+
     private SpriteBatch batch; // SpriteBatch used for drawing 2D textures
+    private Assets assets; // Shared, reference-counted assets for every screen
+    private AudioManager audio; // Master volume, voice limits and sound coalescing for every screen
+    private AudioDispatcher audioDispatcher; // Runs the backend audio calls; inline unless the launcher provides one
+    private boolean instancedDrops; // Draw drops with the GL3 instanced renderer where available
+    private boolean renderBench; // Run the drop renderer comparison instead of the game
+    private long playRequestedTime; // When Play was pressed, for timing the first gameplay frame
+    private ScreenRegistry screens; // Every screen, created once and reused
+    private int navigationSoakCount; // Screen changes to run through when soak testing, 0 when playing normally
+    private NavigationSoak navigationSoak;
+    private boolean recordReplays; // Save every gameplay run as a replay file
+    private String replayFile; // Absolute path of a replay to play instead of reading the keyboard, or null
+    private boolean replayMaxSpeed; // Play the replay as fast as the CPU allows rather than in real time
+    private GcStats gcStats; // Collector counters for the profiler overlay, null where the platform has none
+    private DropStore.SliceExecutor dropExecutor; // Multi-threaded drop update, null where the platform has no threads
+    private int dropExecutorThreshold;
+    private HighScoreStore highScores; // Finished runs; session-only unless the launcher provides a persistent store
+    private String leaderboardUrl; // Leaderboard server to submit runs to, or null to keep them local
+    private LeaderboardClient leaderboard;
+    private long launchMillis = TimeUtils.millis(); // When the process started, if the launcher knows no better
+    private StartupTimes startup;
+    private Runnable backgroundWarmup; // Started once the menu is up, null where the platform has no threads
+    private boolean startupBench; // Press Play as soon as possible, log the startup times and exit
+    private SpawnSchedule spawns; // Read from spawns.txt on first use, then shared by every run
+
+    // A file under the player data directory
+    public static FileHandle dataFile(String path) {
+        return Gdx.files.external(DATA_DIRECTORY + path);
+    }
 
     @Override
     public void create() {
+        startup = new StartupTimes(launchMillis);
+        startup.markCreate();
         try {
             batch = new SpriteBatch(); // Initialize the SpriteBatch
-            setScreen(new StartMenuScreen(this)); // Set the initial screen to the Start Menu
+            assets = new Assets();
+            audio = new AudioManager(audioDispatcher != null ? audioDispatcher : new InlineAudioDispatcher());
+            if (highScores == null) {
+                highScores = new HighScoreIndex();
+            }
+            if (leaderboardUrl != null) {
+                leaderboard = new LeaderboardClient(leaderboardUrl, leaderboardPlayer());
+            }
+            assets.queueGameplay(); // Preload gameplay assets while the menu is up
+            screens = new ScreenRegistry(this);
+            if (renderBench) {
+                setScreen(new RenderBenchScreen(this)); // Exits when done
+                return;
+            }
+            showScreen(ScreenRegistry.ScreenId.MENU); // Set the initial screen to the Start Menu
+            if (navigationSoakCount > 0) {
+                navigationSoak = new NavigationSoak(this, navigationSoakCount);
+            }
         } catch (Exception e) {
             // Log the exception and handle it appropriately
             System.err.println("Error during game creation: " + e.getMessage());
@@ -22,7 +83,20 @@ public class MainGame extends Game {
     @Override
     public void render() {
         try {
+            if (!assets.isFinished()) {
+                assets.update(ASSET_BUDGET_MILLIS); // Decoding runs on the loader thread; this uploads what is ready
+            }
             super.render(); // Delegate the rendering to the current screen
+            if (startup.getGameplayReady() < 0) {
+                updateStartup();
+            }
+            if (leaderboard != null) {
+                leaderboard.update(); // Picks up the last reply; the request itself runs off this thread
+            }
+            audio.update(); // Play sounds merged during the frame once their window closes
+            if (navigationSoak != null) {
+                navigationSoak.step();
+            }
         } catch (Exception e) {
             // Log the exception and handle it appropriately
             System.err.println("Error during rendering: " + e.getMessage());
@@ -33,10 +107,26 @@ public class MainGame extends Game {
     @Override
     public void dispose() {
         try {
-            // Dispose of the SpriteBatch when the game is closed
+            // Dispose of the screens and the SpriteBatch when the game is closed
+            if (screen != null) {
+                screen.hide();
+                screen = null;
+            }
+            if (screens != null) {
+                screens.dispose();
+            }
             if (batch != null) {
                 batch.dispose();
             }
+            if (assets != null) {
+                assets.dispose(); // A threaded dispatcher queues the sound disposals behind the plays already queued
+            }
+            if (audio != null) {
+                audio.dispose(); // Finish queued commands, disposals included
+            }
+            if (highScores != null) {
+                highScores.dispose();
+            }
         } catch (Exception e) {
             // Log the exception and handle it appropriately
             System.err.println("Error during dispose: " + e.getMessage());
@@ -48,4 +138,219 @@ public class MainGame extends Game {
     public SpriteBatch getBatch() {
         return batch;
     }
+
+    // Getter for the shared assets
+    public Assets getAssets() {
+        return assets;
+    }
+
+    // Run audio backend calls through the given dispatcher, for example on a worker thread; set before create()
+    public void setAudioDispatcher(AudioDispatcher audioDispatcher) {
+        this.audioDispatcher = audioDispatcher;
+    }
+
+    // Draw drops with one instanced draw call when GL3 is available; set before create()
+    public void setInstancedDrops(boolean instancedDrops) {
+        this.instancedDrops = instancedDrops;
+    }
+
+    public boolean isInstancedDrops() {
+        return instancedDrops;
+    }
+
+    // Compare the drop renderers at several drop counts, print the frame times and exit; set before create()
+    public void setRenderBench(boolean renderBench) {
+        this.renderBench = renderBench;
+    }
+
+    // Getter for the audio manager
+    public AudioManager getAudio() {
+        return audio;
+    }
+
+    // Switch to the cached screen for the id; the previous screen is hidden, not disposed
+    public void showScreen(ScreenRegistry.ScreenId id) {
+        setScreen(screens.get(id));
+    }
+
+    public ScreenRegistry getScreens() {
+        return screens;
+    }
+
+    // Cycle through the given number of screen changes after startup, then exit; set before create()
+    public void setNavigationSoak(int navigations) {
+        this.navigationSoakCount = navigations;
+    }
+
+    // Save every run to replays/ in the player data directory; set before create()
+    public void setRecordReplays(boolean recordReplays) {
+        this.recordReplays = recordReplays;
+    }
+
+    public boolean isRecordingReplays() {
+        return recordReplays;
+    }
+
+    // Drive gameplay from a recorded replay instead of the keyboard; set before create()
+    public void setReplay(String replayFile, boolean maxSpeed) {
+        this.replayFile = replayFile;
+        this.replayMaxSpeed = maxSpeed;
+    }
+
+    public String getReplayFile() {
+        return replayFile;
+    }
+
+    public boolean isReplayMaxSpeed() {
+        return replayMaxSpeed;
+    }
+
+    // Give the profiler overlay access to GC counters; set before create()
+    public void setGcStats(GcStats gcStats) {
+        this.gcStats = gcStats;
+    }
+
+    public GcStats getGcStats() {
+        return gcStats;
+    }
+
+    // Update large drop populations on several threads; set before create()
+    public void setDropExecutor(DropStore.SliceExecutor dropExecutor, int threshold) {
+        this.dropExecutor = dropExecutor;
+        this.dropExecutorThreshold = threshold;
+    }
+
+    public DropStore.SliceExecutor getDropExecutor() {
+        return dropExecutor;
+    }
+
+    public int getDropExecutorThreshold() {
+        return dropExecutorThreshold;
+    }
+
+    // A fresh simulation config for a run, with the spawn schedule the game plays by; render thread only
+    public SimConfig newSimConfig() {
+        if (spawns == null) {
+            spawns = loadSpawns();
+        }
+        SimConfig config = new SimConfig();
+        config.spawns = spawns;
+        return config;
+    }
+
+    // Read the spawn curves and waves, or fall back to the plain SimConfig settings
+    private SpawnSchedule loadSpawns() {
+        try {
+            return SpawnSchedule.parse(Gdx.files.internal("spawns.txt").readString("UTF-8"));
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during spawn schedule loading: " + e.getMessage());
+            e.printStackTrace();
+            return SpawnSchedule.EMPTY;
+        }
+    }
+
+    // Keep finished runs in the given store, for example one on disk; set before create()
+    public void setHighScoreStore(HighScoreStore highScores) {
+        this.highScores = highScores;
+    }
+
+    public HighScoreStore getHighScores() {
+        return highScores;
+    }
+
+    // Once the first menu frame is up, start the warmup and build the gameplay screen as soon as its assets are in,
+    // so Play only has to show it
+    private void updateStartup() {
+        if (startup.getMenu() < 0) {
+            if (screen instanceof StartMenuScreen) {
+                startup.markMenu();
+                Gdx.app.log("MainGame", "Launch to menu: " + startup.getMenu() + " ms");
+                if (backgroundWarmup != null) {
+                    backgroundWarmup.run();
+                }
+            }
+            return;
+        }
+        if (assets.isFinished()) {
+            screens.get(ScreenRegistry.ScreenId.GAMEPLAY); // Created now while the menu idles, shown on Play
+            startup.markGameplayReady();
+            Gdx.app.log("MainGame", "Launch to gameplay ready: " + startup.getGameplayReady() + " ms");
+            if (startupBench) {
+                play();
+            }
+        }
+    }
+
+    // When the process started, in TimeUtils.millis() time, for measuring startup; set before create()
+    public void setLaunchMillis(long launchMillis) {
+        this.launchMillis = launchMillis;
+    }
+
+    // Work to start in the background once the menu is showing, such as warming up the JIT; set before create()
+    public void setBackgroundWarmup(Runnable backgroundWarmup) {
+        this.backgroundWarmup = backgroundWarmup;
+    }
+
+    // Go straight from the menu to gameplay, log the startup times and exit; set before create()
+    public void setStartupBench(boolean startupBench) {
+        this.startupBench = startupBench;
+    }
+
+    public StartupTimes getStartupTimes() {
+        return startup;
+    }
+
+    // Submit finished runs to the leaderboard server at the given root URL; set before create()
+    public void setLeaderboardUrl(String leaderboardUrl) {
+        this.leaderboardUrl = leaderboardUrl;
+    }
+
+    // The leaderboard client, or null when no server was given
+    public LeaderboardClient getLeaderboard() {
+        return leaderboard;
+    }
+
+    // Name this install submits under, made up on first use and kept in the preferences
+    private String leaderboardPlayer() {
+        Preferences preferences = Gdx.app.getPreferences("bucket-jump-adventure");
+        String player = preferences.getString("leaderboardPlayer", "");
+        if (player.isEmpty()) {
+            player = "player-" + Long.toHexString(MathUtils.random.nextLong() >>> 16);
+            preferences.putString("leaderboardPlayer", player);
+            preferences.flush();
+        }
+        return player;
+    }
+
+    // Start gameplay from the menu, timing how long the first gameplay frame takes to appear
+    public void play() {
+        playRequestedTime = TimeUtils.nanoTime();
+        startGame();
+    }
+
+    // Enter gameplay, waiting on the loading screen if the preload hasn't finished yet
+    public void startGame() {
+        if (assets.isFinished()) {
+            showScreen(ScreenRegistry.ScreenId.GAMEPLAY);
+        } else {
+            showScreen(ScreenRegistry.ScreenId.LOADING);
+        }
+    }
+
+    // Called by the gameplay screen once its first frame is drawn
+    public void onFirstGameplayFrame() {
+        if (playRequestedTime != 0) {
+            long millis = TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(playRequestedTime));
+            Gdx.app.log("MainGame", "Play to first gameplay frame: " + millis + " ms");
+            playRequestedTime = 0;
+        }
+        if (startup.getGameplay() < 0) {
+            startup.markGameplay();
+            Gdx.app.log("MainGame", "Startup times (ms since launch): " + startup.summary());
+            if (startupBench) {
+                Gdx.app.exit();
+            }
+        }
+    }
 }
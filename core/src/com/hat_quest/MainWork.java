@@ -1,89 +1,220 @@
 package com.hat_quest;
 
-import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.TimeUtils;
-
-import java.util.Iterator;
-
-// Main game screen class
+import com.hat_quest.sim.Bucket;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.FixedTimestep;
+import com.hat_quest.sim.GameEvents;
+import com.hat_quest.sim.Replay;
+import com.hat_quest.sim.ReplayInput;
+import com.hat_quest.sim.SimConfig;
+import com.hat_quest.sim.World;
+
+// Main game screen class, rendering and driving the simulation in the sim module
 public class MainWork implements Screen {
-    private final Game game;
+    private static final long MAX_SPEED_FRAME_NANOS = 15000000L; // Stepping budget per frame for flat-out replays
+    private static final int MAX_SPEED_CHECK_TICKS = 64; // Ticks between clock reads while stepping flat out
+
+    private final MainGame game;
+    private final Assets assets; // Shared assets, retained while this screen exists
     private final OrthographicCamera camera;
-    private final SpriteBatch batch;
+    private final SpriteBatch batch; // Shared with the other screens, owned by MainGame
     private final BitmapFont font;
-    private final Sound dropSound;
-    private static Music rainMusic = null;
-    private final Texture dropImage, bucketImage, enemyDropImage, shieldImage;
-    private final Bucket bucket;
-    private final RaindropManager raindropManager;
-    private final EnemyDropManager enemyDropManager;
-    private final BonusSystem bonusSystem;
-    private final Shield shield;
+    private final AudioManager.SoundChannel dropSound; // Voice-limited and coalesced through the game's AudioManager
+    private final AudioManager audio; // Every backend audio call goes through here
+    private final TextureAtlas atlas; // Every sprite and the HUD font, packed into one texture
+    private final TextureRegion bucketImage, shieldImage;
+    private final TextureRegion[] dropImages; // Drop sprites indexed by drop type
+    private final DropRenderer dropRenderer; // SpriteBatch quads or one instanced draw, chosen at startup
+    private final Particles particles; // Catch, hit and miss effects, from a fixed particle budget
+    private final Particles.Effect splash, groundSplash, sparks, shieldHit, lifeUp;
+    private final World world; // Game rules, bucket physics and drops
+    private final PhaseTimer phases; // Steps the world's tick phase by phase, timing each
+    private final GdxInputSource input; // Keyboard state handed to the simulation
+    private final ReplayInput replayInput; // Recorded input played back instead of the keyboard, or null
+    private final boolean replayMaxSpeed; // Step the replay as fast as possible instead of in real time
+    private final boolean recordReplays; // Save each run's seed and input for later playback
+    private Replay recording; // The run being recorded, or null
+    private final FixedTimestep timestep; // Converts frame time into fixed simulation ticks
     private final ScoreBoard scoreBoard;
+    private final HudText livesText, shieldText; // HUD lines, relaid out only when their values change
+    private final HudText[] pausedText, gameOverText; // Fixed messages, laid out once
+    private final HudText replayText, replayFinishedText;
+    private final FrameProfiler profiler; // Per-phase frame timings, always recorded
+    private final ProfilerOverlay profilerOverlay;
+    private boolean profilerVisible = false; // Toggled with F3
 
-    private boolean showDeathScreen = false; // Flag to show the death screen
     private boolean isPaused = false; // Flag to check if the game is paused
-    private int lives = 3; // Player's lives
-
-    private long lastDropTime; // Last time a raindrop was spawned
-    private long lastEnemyDropTime; // Last time an enemy drop was spawned
+    private boolean firstFrameDrawn = false; // Flag to report the first gameplay frame once
+    private int renderCalls; // Draw calls issued by the batch during the last frame
+    private int frameEvents; // Gameplay events handled during the last frame
+    private int lastLoggedRenderCalls = -1;
 
-    public MainWork(Game game) {
+    public MainWork(MainGame game) {
         this.game = game;
+        this.assets = game.getAssets();
+        this.assets.retainGameplay(); // Already preloaded, so this only takes a reference
         this.camera = new OrthographicCamera();
         this.camera.setToOrtho(false, 800, 480); // Set camera dimensions
-        this.batch = new SpriteBatch();
-        this.font = new BitmapFont();
-        this.dropSound = Gdx.audio.newSound(Gdx.files.internal("drop.wav"));
-        this.rainMusic = Gdx.audio.newMusic(Gdx.files.internal("rain.mp3"));
-        this.dropImage = new Texture(Gdx.files.internal("droplet.png"));
-        this.bucketImage = new Texture(Gdx.files.internal("bucket.png"));
-        this.enemyDropImage = new Texture(Gdx.files.internal("enemy_droplet.png"));
-        this.shieldImage = new Texture(Gdx.files.internal("shield.png"));
-        this.bucket = new Bucket(bucketImage);
-        this.raindropManager = new RaindropManager(dropImage, dropSound, bucket, this::onRaindropCaught);
-        this.enemyDropManager = new EnemyDropManager(enemyDropImage, bucket, this::onEnemyDropCaught);
-        this.bonusSystem = new BonusSystem("bonus.png");
-        this.shield = new Shield();
-        this.scoreBoard = new ScoreBoard();
-
-        rainMusic.setLooping(true); // Loop background music
-        rainMusic.play();
-    }
-
-    // Callback when a raindrop is caught
-    private void onRaindropCaught() {
-        scoreBoard.addScore(1);
+        this.batch = game.getBatch();
+        this.audio = game.getAudio();
+        this.dropSound = audio.channel(assets.get(Assets.DROP_SOUND, Sound.class), 4, 300, 60); // 4 voices, 60 ms bursts
+        this.atlas = assets.get(Assets.ATLAS, TextureAtlas.class); // Packed by the packTextures Gradle task
+        this.font = assets.get(Assets.FONT, BitmapFont.class); // Glyphs come from the atlas page
+        this.bucketImage = atlas.findRegion("bucket");
+        this.shieldImage = atlas.findRegion("shield");
+        this.dropImages = new TextureRegion[DropStore.TYPE_COUNT];
+        this.dropImages[DropStore.RAIN] = atlas.findRegion("droplet");
+        this.dropImages[DropStore.ENEMY] = atlas.findRegion("enemy_droplet");
+        this.dropImages[DropStore.BONUS] = atlas.findRegion("bonus");
+        this.dropRenderer = DropRenderer.create(game.isInstancedDrops(), dropImages);
+        this.particles = new Particles(atlas.findRegion("particle"), Particles.DEFAULT_BUDGET);
+        this.splash = particles.effect().counts(12, 6, 3); // Rain caught in the bucket
+        splash.angleMin = 30;
+        splash.angleMax = 150;
+        splash.speedMin = 80;
+        splash.speedMax = 180;
+        splash.gravity = 600;
+        splash.r = 0.5f;
+        splash.g = 0.7f;
+        this.groundSplash = particles.effect().counts(6, 2, 0); // Any drop reaching the ground, the first to go under load
+        groundSplash.angleMin = 45;
+        groundSplash.angleMax = 135;
+        groundSplash.speedMax = 90;
+        groundSplash.gravity = 400;
+        groundSplash.size = 4;
+        groundSplash.r = 0.5f;
+        groundSplash.g = 0.7f;
+        this.sparks = particles.effect().counts(20, 10, 5); // Enemy drop costing a life
+        sparks.speedMin = 100;
+        sparks.speedMax = 260;
+        sparks.gravity = 300;
+        sparks.lifeMax = 0.45f;
+        sparks.size = 5;
+        sparks.g = 0.4f;
+        sparks.b = 0.1f;
+        this.shieldHit = particles.effect().counts(24, 12, 8); // Enemy drop absorbed by the shield
+        shieldHit.speedMin = 140;
+        shieldHit.speedMax = 160; // Nearly one speed, so the burst reads as an expanding ring
+        shieldHit.lifeMin = 0.25f;
+        shieldHit.lifeMax = 0.35f;
+        shieldHit.r = 0.4f;
+        shieldHit.g = 0.9f;
+        this.lifeUp = particles.effect().counts(16, 8, 4); // Bonus drop restoring a life
+        lifeUp.angleMin = 60;
+        lifeUp.angleMax = 120;
+        lifeUp.speedMin = 40;
+        lifeUp.speedMax = 100;
+        lifeUp.lifeMin = 0.6f;
+        lifeUp.lifeMax = 1f;
+        lifeUp.b = 0.3f;
+        SimConfig config = game.newSimConfig();
+        this.input = new GdxInputSource();
+        this.replayInput = loadReplay(game.getReplayFile());
+        this.replayMaxSpeed = game.isReplayMaxSpeed();
+        this.recordReplays = game.isRecordingReplays() && replayInput == null;
+        if (replayInput != null) {
+            config.ticksPerSecond = replayInput.getReplay().getTicksPerSecond(); // Replays only match at the rate they were recorded
+        }
+        this.world = new World(config, replayInput != null ? replayInput : input, MathUtils.random.nextLong());
+        this.world.getDrops().setSliceExecutor(game.getDropExecutor(), game.getDropExecutorThreshold());
+        this.phases = new PhaseTimer(world);
+        this.timestep = new FixedTimestep(config.stepSeconds(), 0.25f); // Never simulate more than a quarter second per frame
+
+        audio.setMusic(assets.get(Assets.RAIN_MUSIC, Music.class), 1f, true); // Looping, follows the master volume set in Settings
+        this.scoreBoard = new ScoreBoard(font);
+        this.livesText = new HudText(font, 0, 460);
+        this.shieldText = new HudText(font, 0, 440);
+        layoutHud(Gdx.graphics.getWidth());
+        this.pausedText = new HudText[] {
+                fixedText("Paused", 350, 240),
+                fixedText("Press 'P' to Resume", 320, 200)};
+        this.gameOverText = new HudText[] {
+                fixedText("Game Over!", 350, 240),
+                fixedText("Press 'R' to Restart", 320, 200),
+                fixedText("Esc for Main Menu", 320, 160)};
+        this.replayText = fixedText(replayMaxSpeed ? "Replay (max speed)" : "Replay", 330, 460);
+        this.replayFinishedText = fixedText("Replay finished", 330, 460);
+        this.profiler = new FrameProfiler(game.getGcStats());
+        this.profilerOverlay = new ProfilerOverlay(font, profiler, audio, particles, phases);
+    }
+
+    // Read the replay to play back, or return null to play from the keyboard
+    private ReplayInput loadReplay(String path) {
+        if (path == null) {
+            return null;
+        }
+        try {
+            Replay replay = Replay.decode(Gdx.files.absolute(path).readBytes());
+            Gdx.app.log("MainWork", "Playing replay " + path + ": " + replay.getLength() + " ticks, seed " + replay.getSeed());
+            return new ReplayInput(replay);
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during replay loading: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
     }
 
-    // Callback when an enemy drop is caught
-    private void onEnemyDropCaught() {
-        if (shield.isActive()) {
-            return;
-        }
-        lives--;
-        if (lives <= 0) {
-            showDeathScreen = true;
-            rainMusic.stop();
+    // Hand the gameplay events of the frame's ticks to sound, effects and the profiler, then empty the queue
+    private void drainEvents() {
+        GameEvents events = world.getEvents();
+        float halfDrop = world.getConfig().dropSize / 2;
+        frameEvents = events.size();
+        for (int i = 0; i < frameEvents; i++) {
+            float centerX = events.getX(i) + halfDrop;
+            float y = events.getY(i);
+            switch (events.getKind(i)) {
+                case GameEvents.CATCH:
+                    byte type = events.getDropType(i);
+                    if (type == DropStore.RAIN) {
+                        dropSound.play();
+                        particles.emit(splash, centerX, y);
+                    } else if (type == DropStore.ENEMY) {
+                        particles.emit(sparks, centerX, y);
+                    } else {
+                        particles.emit(lifeUp, centerX, y);
+                    }
+                    break;
+                case GameEvents.BLOCK:
+                    particles.emit(shieldHit, centerX, y);
+                    break;
+                case GameEvents.MISS:
+                    particles.emit(groundSplash, centerX, y);
+                    break;
+                case GameEvents.GAME_OVER:
+                    audio.stopMusic();
+                    saveRecording();
+                    recordHighScore();
+                    break;
+                default:
+                    break;
+            }
         }
+        events.clear();
     }
 
+    // Every visit from the menu starts a fresh run
     @Override
     public void show() {
-        // Initialization is done in the constructor
+        Gdx.input.setInputProcessor(null); // Keys are polled, not handled by a processor
+        isPaused = false;
+        firstFrameDrawn = false;
+        profiler.reset();
+        restartGame();
     }
 
     @Override
@@ -93,15 +224,48 @@ public class MainWork implements Screen {
                 renderPausedScreen();
                 if (Gdx.input.isKeyJustPressed(Keys.P)) {
                     isPaused = false;
-                    rainMusic.play();
+                    profiler.reset();
+                    timestep.reset();
+                    input.reset();
+                    audio.playMusic();
                 }
                 return;
             }
 
-            handleInput();
-            updateGameObjects(delta);
-            checkAndSpawnDrops(); // Handle time-based drop spawning
-            renderGameObjects();
+            profiler.begin(FrameProfiler.INPUT);
+            if (handleInput()) {
+                profiler.end(FrameProfiler.INPUT); // Keep the phase balanced; show() drops the unfinished frame
+                return; // Left for the menu
+            }
+            input.poll();
+            profiler.end(FrameProfiler.INPUT);
+
+            profiler.begin(FrameProfiler.SIMULATE);
+            long startTick = world.getTick();
+            float alpha;
+            if (replayInput != null && replayMaxSpeed) {
+                stepFlatOut();
+                alpha = 1f; // Frames only sample the replay, so there is nothing to blend
+            } else {
+                int ticks = timestep.advance(delta);
+                for (int i = 0; i < ticks && nextReplayTick(); i++) {
+                    phases.tick(); // Input, physics, collisions and spawning at a fixed rate
+                }
+                alpha = timestep.alpha();
+            }
+            drainEvents();
+            particles.update(delta);
+            profiler.end(FrameProfiler.SIMULATE);
+
+            profiler.begin(FrameProfiler.RENDER);
+            renderGameObjects(alpha);
+            profiler.end(FrameProfiler.RENDER);
+            profiler.endFrame((int) (world.getTick() - startTick), renderCalls, frameEvents, world.getDrops());
+            phases.endFrame();
+            if (!firstFrameDrawn) {
+                firstFrameDrawn = true;
+                game.onFirstGameplayFrame();
+            }
         } catch (Exception e) {
             // Log the exception and handle it appropriately
             System.err.println("Error during rendering: " + e.getMessage());
@@ -109,112 +273,141 @@ public class MainWork implements Screen {
         }
     }
 
+    // Move the replay on to the next tick; false once it has run out
+    private boolean nextReplayTick() {
+        if (replayInput == null) {
+            return true;
+        }
+        if (replayInput.isFinished()) {
+            return false;
+        }
+        replayInput.next();
+        return true;
+    }
+
+    // Step the replay for most of a frame, checking the clock every few ticks
+    private void stepFlatOut() {
+        long deadline = TimeUtils.nanoTime() + MAX_SPEED_FRAME_NANOS;
+        while (!world.isGameOver()) {
+            for (int i = 0; i < MAX_SPEED_CHECK_TICKS && !world.isGameOver() && nextReplayTick(); i++) {
+                phases.tick();
+            }
+            if (replayInput.isFinished() || TimeUtils.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
     // Render the paused screen
     private void renderPausedScreen() {
         ScreenUtils.clear(0, 0, 0.2f, 1); // Clear screen with blue color
         camera.update();
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        font.draw(batch, "Paused", 350, 240);
-        font.draw(batch, "Press 'P' to Resume", 320, 200);
+        drawAll(pausedText);
         batch.end();
     }
 
-    // Handle user input
-    private void handleInput() {
-        if (showDeathScreen) {
-            if (Gdx.input.isKeyPressed(Keys.R)) {
-                restartGame();
-            }
-            if (Gdx.input.isKeyJustPressed(Keys.ESCAPE)) {
-                game.setScreen(new StartMenuScreen((MainGame) game));
-                rainMusic.stop();
-            }
-        } else {
-            bucket.handleInput();
-            if (Gdx.input.isKeyJustPressed(Keys.ESCAPE)) {
-                game.setScreen(new StartMenuScreen((MainGame) game));
-                rainMusic.stop();
-            }
-            if (Gdx.input.isKeyJustPressed(Keys.P)) {
-                isPaused = true;
-                rainMusic.pause();
-            }
-            if (Gdx.input.isKeyJustPressed(Keys.F) && shield.canActivate()) {
-                shield.activate();
-            }
+    // Handle screen-level input; bucket and shield controls are read by the simulation
+    // Returns true when the screen was left
+    private boolean handleInput() {
+        if (Gdx.input.isKeyJustPressed(Keys.ESCAPE)) {
+            game.showScreen(ScreenRegistry.ScreenId.MENU);
+            return true;
         }
-    }
-
-    // Update game objects
-    private void updateGameObjects(float delta) {
-        if (showDeathScreen) {
-            return;
+        if (Gdx.input.isKeyJustPressed(Keys.F3)) {
+            profilerVisible = !profilerVisible;
         }
-        bucket.update(delta);
-        raindropManager.update(delta);
-        enemyDropManager.update(delta);
-        shield.update();
-        bonusSystem.updateBonusDrops(delta, bucket.getRectangle(), this);
-    }
-
-    // Check and spawn drops based on time intervals
-    private void checkAndSpawnDrops() {
-        long timeNow = TimeUtils.nanoTime();
-        if (timeNow - lastDropTime > 1000000000) { // 1 second for normal drops
-            raindropManager.spawnRaindrop();
-            lastDropTime = timeNow;
+        if (Gdx.input.isKeyJustPressed(Keys.F4)) {
+            saveProfile();
         }
-        if (timeNow - lastEnemyDropTime > 1500000000) { // 1.5 seconds for enemy drops
-            if (MathUtils.randomBoolean(0.5f)) { // 50% chance to spawn an enemy drop
-                enemyDropManager.spawnEnemyDrop();
+        if (world.isGameOver()) {
+            if (Gdx.input.isKeyPressed(Keys.R)) {
+                restartGame();
             }
-            lastEnemyDropTime = timeNow;
-        }
-        if (MathUtils.randomBoolean(0.001f)) { // Chance to spawn a bonus drop
-            bonusSystem.spawnBonusDrop();
+        } else if (Gdx.input.isKeyJustPressed(Keys.P)) {
+            isPaused = true;
+            audio.pauseMusic();
         }
+        return false;
     }
 
-    // Render game objects
-    private void renderGameObjects() {
+    // Render game objects, blended alpha of the way from the previous tick to the current one
+    private void renderGameObjects(float alpha) {
         ScreenUtils.clear(0, 0, 0.2f, 1); // Clear screen with blue color
         camera.update();
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        if (!showDeathScreen) {
-            bucket.render(batch);
-            raindropManager.render(batch);
-            enemyDropManager.render(batch);
-            bonusSystem.renderBonusDrops(batch);
-            if (shield.isActive()) {
-                bucket.renderShield(batch, shieldImage);
+        if (!world.isGameOver()) {
+            Bucket bucket = world.getBucket();
+            float bucketX = bucket.getX(alpha);
+            float bucketY = bucket.getY(alpha);
+            batch.draw(bucketImage, bucketX, bucketY);
+            dropRenderer.draw(batch, world.getDrops(), alpha);
+            if (world.getShield().isActive()) {
+                batch.draw(shieldImage, bucketX - 10, bucketY - 10, bucket.getWidth() + 20, bucket.getHeight() + 20);
             }
+            particles.draw(batch);
         } else {
-            font.draw(batch, "Game Over!", 350, 240);
-            font.draw(batch, "Press 'R' to Restart", 320, 200);
-            font.draw(batch, "Esc for Main Menu", 320, 160);
+            drawAll(gameOverText);
         }
         renderUI(batch);
+        if (replayInput != null) {
+            (replayInput.isFinished() ? replayFinishedText : replayText).draw(batch);
+        }
+        if (profilerVisible) {
+            profiler.begin(FrameProfiler.OVERLAY);
+            profilerOverlay.draw(batch);
+            profiler.end(FrameProfiler.OVERLAY);
+        }
         batch.end();
+        trackRenderCalls();
+    }
+
+    // Record how many draw calls the frame took; with the atlas a gameplay frame should need one
+    private void trackRenderCalls() {
+        renderCalls = batch.renderCalls;
+        if (renderCalls != lastLoggedRenderCalls) {
+            Gdx.app.debug("MainWork", "Render calls per frame: " + renderCalls + ", max sprites in batch: " + batch.maxSpritesInBatch);
+            lastLoggedRenderCalls = renderCalls;
+        }
     }
 
     // Render the UI elements
     private void renderUI(SpriteBatch batch) {
-        int screenWidth = Gdx.graphics.getWidth();
-        font.draw(batch, "Lives: " + lives, screenWidth - 100, 460);
-        scoreBoard.draw(batch);
-        if (!shield.canActivate()) {
-            long cooldownRemaining = shield.getCooldownRemaining();
-            font.draw(batch, "Shield Cooldown: " + cooldownRemaining + "s", screenWidth - 200, 440);
+        livesText.setValue("Lives: ", world.getLives(), null);
+        livesText.draw(batch);
+        scoreBoard.draw(batch, world.getScore(), Math.max(game.getHighScores().getBest(), world.getScore()),
+            game.getLeaderboard() != null ? game.getLeaderboard().getRank() : 0);
+        if (!world.getShield().canActivate()) {
+            shieldText.setValue("Shield Cooldown: ", world.getShield().getCooldownRemaining(), "s");
         } else {
-            font.draw(batch, "Shield Ready!", screenWidth - 200, 440);
+            shieldText.setText("Shield Ready!");
+        }
+        shieldText.draw(batch);
+    }
+
+    // Anchor the right-hand HUD lines to the screen width
+    private void layoutHud(int screenWidth) {
+        livesText.setPosition(screenWidth - 100, 460);
+        shieldText.setPosition(screenWidth - 200, 440);
+    }
+
+    private HudText fixedText(String text, float x, float y) {
+        HudText hudText = new HudText(font, x, y);
+        hudText.setText(text);
+        return hudText;
+    }
+
+    private void drawAll(HudText[] lines) {
+        for (HudText line : lines) {
+            line.draw(batch);
         }
     }
 
     @Override
     public void resize(int width, int height) {
-        // Handle screen resizing if necessary
+        layoutHud(width);
     }
 
     @Override
@@ -229,19 +422,15 @@ public class MainWork implements Screen {
 
     @Override
     public void hide() {
-        // Handle screen hide if necessary
+        audio.stopMusic(); // Music only plays while the gameplay screen is up
+        saveRecording(); // Leaving mid-run still keeps what was played
     }
 
     @Override
     public void dispose() {
         try {
-            dropImage.dispose();
-            bucketImage.dispose();
-            dropSound.dispose();
-            rainMusic.dispose();
-            batch.dispose();
-            scoreBoard.dispose();
-            bonusSystem.dispose();
+            dropRenderer.dispose();
+            assets.releaseGameplay(); // The game keeps its own reference, so nothing is unloaded here
         } catch (Exception e) {
             // Log the exception and handle it appropriately
             System.err.println("Error during dispose: " + e.getMessage());
@@ -251,200 +440,77 @@ public class MainWork implements Screen {
 
     // Restart the game
     private void restartGame() {
-        raindropManager.clear();
-        enemyDropManager.clear();
-        bucket.resetPosition();
-        showDeathScreen = false;
-        scoreBoard.resetScore();
-        lives = 3;
-        rainMusic.play();
-    }
-
-    // Add a life to the player
-    public void addLife() {
-        if (lives < 3) {
-            lives++;
+        saveRecording();
+        if (replayInput != null) {
+            replayInput.rewind();
+            world.restart(replayInput.getReplay().getSeed());
+        } else {
+            world.restart();
         }
-    }
-
-    // Update the volume of the background music
-    public static void updateVolume(float volume) {
-        rainMusic.setVolume(volume);
-    }
-}
-
-// Class representing the bucket
-class Bucket {
-    private final Rectangle bucketRect;
-    private final Texture texture;
-    private float jumpVelocity;
-    private int jumpCount;
-    private static final float GRAVITY = 1000; // Gravity constant
-    private static final float JUMP_HEIGHT = 600; // Jump height constant
-
-    public Bucket(Texture texture) {
-        this.texture = texture;
-        this.bucketRect = new Rectangle(368, 20, 64, 64); // Initial bucket position
-    }
-
-    // Handle user input for moving the bucket
-    public void handleInput() {
-        if (Gdx.input.isKeyPressed(Keys.A))
-            bucketRect.x -= 300 * Gdx.graphics.getDeltaTime();
-        if (Gdx.input.isKeyPressed(Keys.D))
-            bucketRect.x += 300 * Gdx.graphics.getDeltaTime();
-        if (Gdx.input.isKeyJustPressed(Keys.SPACE) && jumpCount < 2) {
-            jumpVelocity = JUMP_HEIGHT;
-            jumpCount++;
+        if (recordReplays) {
+            recording = new Replay(world.getConfig().ticksPerSecond, world.getRunSeed());
+            world.setRecording(recording);
         }
+        particles.clear();
+        timestep.reset();
+        input.reset();
+        audio.playMusic();
     }
 
-    // Update the bucket's position and state
-    public void update(float delta) {
-        bucketRect.y += jumpVelocity * delta;
-        jumpVelocity -= GRAVITY * delta;
-        if (bucketRect.y < 0) {
-            bucketRect.y = 0;
-            jumpVelocity = 0;
-            jumpCount = 0;
+    // Add the finished run to the high scores; replays are runs already played, so they are not counted again
+    private void recordHighScore() {
+        if (replayInput != null) {
+            return;
         }
-        if (bucketRect.x < 0)
-            bucketRect.x = 0;
-        if (bucketRect.x > 736)
-            bucketRect.x = 736;
-    }
-
-    // Render the bucket
-    public void render(SpriteBatch batch) {
-        batch.draw(texture, bucketRect.x, bucketRect.y);
-    }
-
-    // Render the shield around the bucket
-    public void renderShield(SpriteBatch batch, Texture shieldImage) {
-        batch.draw(shieldImage, bucketRect.x - 10, bucketRect.y - 10, bucketRect.width + 20, bucketRect.height + 20);
-    }
-
-    // Reset the bucket's position
-    public void resetPosition() {
-        bucketRect.x = 368;
-        bucketRect.y = 20;
-        jumpVelocity = 0;
-        jumpCount = 0;
-    }
-
-    // Get the rectangle representing the bucket
-    public Rectangle getRectangle() {
-        return bucketRect;
-    }
-}
-
-// Class managing raindrops
-class RaindropManager {
-    private final Texture dropTexture;
-    private final Sound dropSound;
-    private final Bucket bucket;
-    private final Array<Rectangle> raindrops;
-    private final Runnable onRaindropCaught;
-    private long lastDropTime;
-
-    public RaindropManager(Texture dropTexture, Sound dropSound, Bucket bucket, Runnable onRaindropCaught) {
-        this.dropTexture = dropTexture;
-        this.dropSound = dropSound;
-        this.bucket = bucket;
-        this.raindrops = new Array<>();
-        this.onRaindropCaught = onRaindropCaught;
-        spawnRaindrop();
-    }
-
-    // Update the position and state of raindrops
-    public void update(float delta) {
-        for (Iterator<Rectangle> iter = raindrops.iterator(); iter.hasNext(); ) {
-            Rectangle raindrop = iter.next();
-            raindrop.y -= 200 * delta;
-            if (raindrop.y + 64 < 0) {
-                iter.remove();
-            } else if (raindrop.overlaps(bucket.getRectangle())) {
-                dropSound.play();
-                onRaindropCaught.run();
-                iter.remove();
-            }
+        game.getHighScores().record(world.getScore(), (int) (world.getRunNanos() / 1000000), world.getRunSeed(),
+            TimeUtils.millis());
+        if (game.getLeaderboard() != null) {
+            game.getLeaderboard().submit(world.getScore());
         }
     }
 
-    // Render the raindrops
-    public void render(SpriteBatch batch) {
-        for (Rectangle raindrop : raindrops) {
-            batch.draw(dropTexture, raindrop.x, raindrop.y);
+    // Dump the profiler's frame history to profiles/ in the player data directory
+    private void saveProfile() {
+        try {
+            FileHandle file = MainGame.dataFile("profiles/frames-" + TimeUtils.millis() + ".csv");
+            profiler.writeCsv(file);
+            Gdx.app.log("MainWork", "Saved frame profile " + file.path());
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during profile saving: " + e.getMessage());
+            e.printStackTrace();
         }
     }
 
-    // Spawn a new raindrop
-    public void spawnRaindrop() {
-        Rectangle raindrop = new Rectangle();
-        raindrop.x = MathUtils.random(0, 736);
-        raindrop.y = 480;
-        raindrop.width = 64;
-        raindrop.height = 64;
-        raindrops.add(raindrop);
-        lastDropTime = TimeUtils.nanoTime();
-    }
-
-    // Clear all raindrops
-    public void clear() {
-        raindrops.clear();
-    }
-}
-
-// Class managing enemy drops
-class EnemyDropManager {
-    private final Texture enemyDropTexture;
-    private final Bucket bucket;
-    private final Array<Rectangle> enemyDrops;
-    private final Runnable onEnemyDropCaught;
-    private long lastEnemyDropTime;
-
-    public EnemyDropManager(Texture enemyDropTexture, Bucket bucket, Runnable onEnemyDropCaught) {
-        this.enemyDropTexture = enemyDropTexture;
-        this.bucket = bucket;
-        this.enemyDrops = new Array<>();
-        this.onEnemyDropCaught = onEnemyDropCaught;
-        spawnEnemyDrop();
-    }
-
-    // Update the position and state of enemy drops
-    public void update(float delta) {
-        for (Iterator<Rectangle> iter = enemyDrops.iterator(); iter.hasNext(); ) {
-            Rectangle enemyDrop = iter.next();
-            enemyDrop.y -= 200 * delta;
-            if (enemyDrop.y + 64 < 0) {
-                iter.remove();
-            } else if (enemyDrop.overlaps(bucket.getRectangle())) {
-                onEnemyDropCaught.run();
-                iter.remove();
-            }
+    // Write the run being recorded to replays/ in the player data directory
+    private void saveRecording() {
+        if (recording == null) {
+            return;
         }
-    }
-
-    // Render the enemy drops
-    public void render(SpriteBatch batch) {
-        for (Rectangle enemyDrop : enemyDrops) {
-            batch.draw(enemyDropTexture, enemyDrop.x, enemyDrop.y);
+        world.setRecording(null);
+        Replay finished = recording;
+        recording = null;
+        if (finished.getLength() == 0) {
+            return;
+        }
+        try {
+            FileHandle file = MainGame.dataFile("replays/run-" + TimeUtils.millis() + ".bjr");
+            file.writeBytes(finished.encode(), false);
+            Gdx.app.log("MainWork", "Saved replay " + file.path() + ": " + finished.getLength() + " ticks, score " + world.getScore());
+        } catch (Exception e) {
+            // Log the exception and handle it appropriately
+            System.err.println("Error during replay saving: " + e.getMessage());
+            e.printStackTrace();
         }
     }
 
-    // Spawn a new enemy drop
-    public void spawnEnemyDrop() {
-        Rectangle enemyDrop = new Rectangle();
-        enemyDrop.x = MathUtils.random(0, 736);
-        enemyDrop.y = 480;
-        enemyDrop.width = 64;
-        enemyDrop.height = 64;
-        enemyDrops.add(enemyDrop);
-        lastEnemyDropTime = TimeUtils.nanoTime();
+    // Draw calls issued by the SpriteBatch during the last gameplay frame
+    public int getRenderCalls() {
+        return renderCalls;
     }
 
-    // Clear all enemy drops
-    public void clear() {
-        enemyDrops.clear();
+    // Most sprites the SpriteBatch has held in a single draw call
+    public int getMaxSpritesInBatch() {
+        return batch.maxSpritesInBatch;
     }
 }
@@ -0,0 +1,50 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+
+// Drives the menus through thousands of round trips, one navigation per frame, and logs heap use along the way.
+// With cached screens the texture count and heaps should stay flat; the run exits when done.
+public class NavigationSoak {
+    private static final ScreenRegistry.ScreenId[] ROUTE = {
+            ScreenRegistry.ScreenId.SETTINGS,
+            ScreenRegistry.ScreenId.MENU,
+            ScreenRegistry.ScreenId.GAMEPLAY,
+            ScreenRegistry.ScreenId.MENU
+    };
+    private static final int REPORT_EVERY = 1000;
+
+    private final MainGame game;
+    private final int navigations; // Total screen changes to perform
+    private int done;
+
+    public NavigationSoak(MainGame game, int navigations) {
+        this.game = game;
+        this.navigations = navigations;
+    }
+
+    // Perform the next navigation; call once per frame
+    public void step() {
+        if (!game.getAssets().isFinished()) {
+            return; // Gameplay can't be entered until the preload is done
+        }
+        if (done == navigations) {
+            report();
+            Gdx.app.exit();
+            return;
+        }
+        game.showScreen(ROUTE[done % ROUTE.length]);
+        done++;
+        if (done % REPORT_EVERY == 0) {
+            report();
+        }
+    }
+
+    private void report() {
+        Gdx.app.log("NavigationSoak", "Navigations: " + done
+                + ", screens created: " + game.getScreens().getCreatedCount()
+                + ", textures: " + Texture.getNumManagedTextures()
+                + ", java heap: " + Gdx.app.getJavaHeap() / 1024 + " KB"
+                + ", native heap: " + Gdx.app.getNativeHeap() / 1024 + " KB");
+    }
+}
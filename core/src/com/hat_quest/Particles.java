@@ -0,0 +1,182 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+
+// Splash, spark and shield-hit effects drawn from one fixed pool of particles, laid out like the drop store:
+// parallel arrays sized once for the whole budget, dead particles swap-removed, so emitting allocates nothing.
+// Bursts shrink to the effect's lower detail levels as the pool fills up or frames get slow, and anything
+// past the budget is not emitted at all.
+public class Particles {
+    public static final int DEFAULT_BUDGET = 2048; // Particles alive at once, across every effect
+    public static final int LOD_LEVELS = 3; // 0 is full detail
+
+    private static final float[] LOD_OCCUPANCY = {0.5f, 0.8f}; // Pool fill at which each lower level starts
+    private static final float SLOW_FRAME = 1 / 50f; // Smoothed frame time that drops one more level
+    private static final float FRAME_SMOOTHING = 0.1f;
+
+    // One kind of burst; set up once, then emitted as often as needed
+    public static class Effect {
+        private final int[] counts = new int[LOD_LEVELS]; // Particles per burst at each detail level
+        public float speedMin = 60, speedMax = 120; // Launch speed in pixels per second
+        public float angleMin = 0, angleMax = 360; // Launch direction in degrees, 90 is up
+        public float gravity = 0; // Downward acceleration in pixels per second squared
+        public float lifeMin = 0.3f, lifeMax = 0.6f; // Seconds
+        public float size = 6; // Width and height at birth; shrinks to nothing over the particle's life
+        public float r = 1, g = 1, b = 1; // Tint; alpha fades out with age
+        private byte index; // Slot in the effect table
+
+        // Burst sizes from full detail down; levels not given repeat the last one
+        public Effect counts(int... perLevel) {
+            for (int level = 0; level < LOD_LEVELS; level++) {
+                counts[level] = perLevel[Math.min(level, perLevel.length - 1)];
+            }
+            return this;
+        }
+    }
+
+    private final TextureRegion image;
+    private final int budget;
+    private final Effect[] effects = new Effect[16];
+    private int effectCount;
+
+    // Parallel arrays, live particles packed at the front
+    private final float[] x, y; // Centre of each particle
+    private final float[] velocityX, velocityY;
+    private final float[] age, life; // Seconds lived and seconds to live
+    private final byte[] effect; // Index into effects
+    private int size;
+
+    private float frameAverage; // Smoothed frame time, for the load-based detail level
+    private int lod; // Detail level new bursts are emitted at
+
+    // Counters since startup
+    private long emitted; // Particles started
+    private long culled; // Particles skipped by a lower detail level
+    private long overBudget; // Particles skipped because the pool was full
+
+    public Particles(TextureRegion image, int budget) {
+        this.image = image;
+        this.budget = budget;
+        x = new float[budget];
+        y = new float[budget];
+        velocityX = new float[budget];
+        velocityY = new float[budget];
+        age = new float[budget];
+        life = new float[budget];
+        effect = new byte[budget];
+    }
+
+    // Register a new effect with the pool
+    public Effect effect() {
+        Effect e = new Effect();
+        e.index = (byte) effectCount;
+        effects[effectCount++] = e;
+        return e;
+    }
+
+    // Start a burst of the effect centred on (centerX, centerY), as large as the current detail level allows
+    public void emit(Effect e, float centerX, float centerY) {
+        int wanted = e.counts[0];
+        int count = Math.min(e.counts[lod], budget - size);
+        culled += wanted - e.counts[lod];
+        overBudget += e.counts[lod] - count;
+        for (int n = 0; n < count; n++) {
+            int i = size++;
+            float speed = MathUtils.random(e.speedMin, e.speedMax);
+            float angle = MathUtils.random(e.angleMin, e.angleMax);
+            x[i] = centerX;
+            y[i] = centerY;
+            velocityX[i] = speed * MathUtils.cosDeg(angle);
+            velocityY[i] = speed * MathUtils.sinDeg(angle);
+            age[i] = 0;
+            life[i] = MathUtils.random(e.lifeMin, e.lifeMax);
+            effect[i] = e.index;
+        }
+        emitted += count;
+    }
+
+    // Age and move every particle, then pick the detail level for the next bursts
+    public void update(float delta) {
+        for (int i = size - 1; i >= 0; i--) {
+            float particleAge = age[i] + delta;
+            if (particleAge >= life[i]) {
+                remove(i);
+                continue;
+            }
+            age[i] = particleAge;
+            velocityY[i] -= effects[effect[i]].gravity * delta;
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+        }
+
+        frameAverage += (delta - frameAverage) * FRAME_SMOOTHING;
+        float occupancy = size / (float) budget;
+        int level = 0;
+        while (level < LOD_OCCUPANCY.length && occupancy >= LOD_OCCUPANCY[level]) {
+            level++;
+        }
+        if (frameAverage > SLOW_FRAME) {
+            level++;
+        }
+        lod = Math.min(level, LOD_LEVELS - 1);
+    }
+
+    // Draw every particle between the batch's begin() and end(), shrinking and fading with age
+    public void draw(Batch batch) {
+        if (size == 0) {
+            return;
+        }
+        float oldColor = batch.getPackedColor();
+        for (int i = 0; i < size; i++) {
+            Effect e = effects[effect[i]];
+            float remaining = 1 - age[i] / life[i];
+            float particleSize = e.size * remaining;
+            batch.setPackedColor(Color.toFloatBits(e.r, e.g, e.b, remaining));
+            batch.draw(image, x[i] - particleSize / 2, y[i] - particleSize / 2, particleSize, particleSize);
+        }
+        batch.setPackedColor(oldColor);
+    }
+
+    // Drop every live particle, for a new run
+    public void clear() {
+        size = 0;
+    }
+
+    private void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        age[i] = age[last];
+        life[i] = life[last];
+        effect[i] = effect[last];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getLod() {
+        return lod;
+    }
+
+    public long getEmitted() {
+        return emitted;
+    }
+
+    public long getCulled() {
+        return culled;
+    }
+
+    public long getOverBudget() {
+        return overBudget;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.utils.TimeUtils;
+import com.hat_quest.sim.World;
+
+// Steps the world one tick at a time, phase by phase, timing each phase so the profiler overlay shows where a
+// tick's time goes. The rules stay in the sim module, so headless runs, replays and the farm step the same code
+public class PhaseTimer {
+    private static final int AVERAGE_FRAMES = 30; // Frames the running averages roughly cover
+    private static final String[] NAMES = {"input", "movement", "drops", "status", "spawn"}; // By World phase
+
+    private final World world;
+    private final long[] frameNanos = new long[World.PHASE_COUNT]; // Time per phase since the last endFrame()
+    private final long[] averageNanos = new long[World.PHASE_COUNT];
+
+    public PhaseTimer(World world) {
+        this.world = world;
+    }
+
+    // Step the simulation one fixed tick, or do nothing once the game is over, like World.step()
+    public void tick() {
+        if (world.isGameOver()) {
+            return;
+        }
+        world.beginTick(); // Reads the input source and records it when recording
+        for (int phase = 0; phase < World.PHASE_COUNT; phase++) {
+            long start = TimeUtils.nanoTime();
+            world.runPhase(phase);
+            frameNanos[phase] += TimeUtils.nanoTime() - start;
+        }
+    }
+
+    // Fold the frame's time, over every tick of the frame, into the averages and start counting the next frame
+    public void endFrame() {
+        for (int phase = 0; phase < World.PHASE_COUNT; phase++) {
+            averageNanos[phase] += (frameNanos[phase] - averageNanos[phase]) / AVERAGE_FRAMES;
+            frameNanos[phase] = 0;
+        }
+    }
+
+    public String getName(int phase) {
+        return NAMES[phase];
+    }
+
+    public long getAverageNanos(int phase) {
+        return averageNanos[phase];
+    }
+}
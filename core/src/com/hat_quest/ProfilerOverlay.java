@@ -0,0 +1,118 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.hat_quest.sim.DropStore;
+import com.hat_quest.sim.World;
+
+// Draws the frame profiler's numbers over the game; text is rebuilt a few times a second into reused buffers
+public class ProfilerOverlay {
+    private static final int REFRESH_FRAMES = 15; // Frames between text updates, so the numbers stay readable
+    private static final float LINE_HEIGHT = 20;
+
+    private final FrameProfiler profiler;
+    private final AudioManager audio;
+    private final Particles particles;
+    private final PhaseTimer phases;
+    private final HudText[] lines;
+    private final StringBuilder line = new StringBuilder(96);
+    private int framesUntilRefresh;
+
+    public ProfilerOverlay(BitmapFont font, FrameProfiler profiler, AudioManager audio, Particles particles,
+                           PhaseTimer phases) {
+        this.profiler = profiler;
+        this.audio = audio;
+        this.particles = particles;
+        this.phases = phases;
+        this.lines = new HudText[9];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new HudText(font, 20, 400 - i * LINE_HEIGHT); // Below the score, best and rank lines
+            lines[i].setColor(1, 1, 0.4f, 1);
+        }
+    }
+
+    public void draw(Batch batch) {
+        if (framesUntilRefresh-- <= 0) {
+            refresh();
+            framesUntilRefresh = REFRESH_FRAMES;
+        }
+        for (HudText text : lines) {
+            text.draw(batch);
+        }
+    }
+
+    private void refresh() {
+        profiler.computeStats();
+
+        line.setLength(0);
+        line.append("Frame p50 ");
+        FrameProfiler.appendMillis(line, profiler.getP50Nanos(), 2).append(" ms  p99 ");
+        FrameProfiler.appendMillis(line, profiler.getP99Nanos(), 2).append(" ms  max ");
+        FrameProfiler.appendMillis(line, profiler.getMaxNanos(), 2).append(" ms");
+        lines[0].setText(line);
+
+        line.setLength(0);
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+            if (phase > 0) {
+                line.append("  ");
+            }
+            line.append(FrameProfiler.getPhaseName(phase)).append(' ');
+            FrameProfiler.appendMillis(line, profiler.getPhaseAverageNanos(phase), 2);
+        }
+        line.append(" ms");
+        lines[1].setText(line);
+
+        line.setLength(0);
+        line.append("Ticks ").append(profiler.getLastTicks())
+            .append("  Render calls ").append(profiler.getLastRenderCalls())
+            .append("  Events ").append(profiler.getLastEvents());
+        lines[2].setText(line);
+
+        line.setLength(0);
+        line.append("Drops rain ").append(profiler.getLastDropCount(DropStore.RAIN))
+            .append("  enemy ").append(profiler.getLastDropCount(DropStore.ENEMY))
+            .append("  bonus ").append(profiler.getLastDropCount(DropStore.BONUS));
+        lines[3].setText(line);
+
+        line.setLength(0);
+        GcStats gcStats = profiler.getGcStats();
+        if (gcStats != null) {
+            line.append("GC ").append(gcStats.getCollectionCount())
+                .append(" collections, ").append(gcStats.getCollectionMillis()).append(" ms");
+        } else {
+            line.append("GC n/a");
+        }
+        lines[4].setText(line);
+
+        line.setLength(0);
+        line.append("Sounds requested ").append(audio.getRequested())
+            .append("  played ").append(audio.getPlayed())
+            .append("  coalesced ").append(audio.getCoalesced())
+            .append("  dropped ").append(audio.getDropped());
+        AudioDispatcher dispatcher = audio.getDispatcher();
+        line.append("  call max ");
+        FrameProfiler.appendMillis(line, dispatcher.getMaxCallNanos(), 3).append(" ms");
+        if (dispatcher.getRejectedCount() > 0) {
+            line.append("  rejected ").append(dispatcher.getRejectedCount());
+        }
+        lines[5].setText(line);
+
+        line.setLength(0);
+        line.append("Particles ").append(particles.size()).append('/').append(particles.getBudget())
+            .append("  LOD ").append(particles.getLod())
+            .append("  culled ").append(particles.getCulled())
+            .append("  over budget ").append(particles.getOverBudget());
+        lines[6].setText(line);
+
+        line.setLength(0);
+        line.append("Phases");
+        for (int phase = 0; phase < World.PHASE_COUNT; phase++) {
+            line.append(' ').append(phases.getName(phase)).append(' ');
+            FrameProfiler.appendMillis(line, phases.getAverageNanos(phase), 2);
+        }
+        line.append(" ms");
+        lines[7].setText(line);
+
+        lines[8].setText("F3 hide  F4 save CSV");
+    }
+}
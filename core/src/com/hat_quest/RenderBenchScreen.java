@@ -0,0 +1,136 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.hat_quest.sim.DropStore;
+
+import java.util.Arrays;
+
+// Frame-time comparison of the drop renderers: draws 10k, 100k and 500k drops with every available renderer,
+// logs p50/p99 frame time and draw time (GPU included, via glFinish) for each, then exits.
+// Run uncapped so frame times are not rounded up to the display rate.
+public class RenderBenchScreen extends ScreenAdapter {
+    private static final int[] DROP_COUNTS = {10000, 100000, 500000};
+    private static final int WARMUP_FRAMES = 60;
+    private static final int MEASURED_FRAMES = 300;
+
+    private final SpriteBatch batch;
+    private final OrthographicCamera camera;
+    private final Assets assets;
+    private DropRenderer[] renderers;
+    private DropStore drops;
+
+    private int rendererIndex;
+    private int countIndex;
+    private int frame; // Frames drawn for the current case, warmup included
+    private long lastFrameTime;
+    private final long[] frameNanos = new long[MEASURED_FRAMES];
+    private final long[] drawNanos = new long[MEASURED_FRAMES];
+
+    public RenderBenchScreen(MainGame game) {
+        this.batch = game.getBatch();
+        this.assets = game.getAssets();
+        this.camera = new OrthographicCamera();
+        this.camera.setToOrtho(false, 800, 480);
+    }
+
+    @Override
+    public void show() {
+        assets.retainGameplay();
+        TextureAtlas atlas = assets.get(Assets.ATLAS, TextureAtlas.class);
+        TextureRegion[] images = new TextureRegion[DropStore.TYPE_COUNT];
+        images[DropStore.RAIN] = atlas.findRegion("droplet");
+        images[DropStore.ENEMY] = atlas.findRegion("enemy_droplet");
+        images[DropStore.BONUS] = atlas.findRegion("bonus");
+        DropRenderer instanced = DropRenderer.create(true, images);
+        if (instanced instanceof InstancedDropRenderer) {
+            renderers = new DropRenderer[] {new BatchDropRenderer(images), instanced};
+        } else {
+            renderers = new DropRenderer[] {instanced}; // Fell back to the batch, so there is nothing to compare
+        }
+        drops = new DropStore(DROP_COUNTS[DROP_COUNTS.length - 1], 64, 800, 480);
+        populate(DROP_COUNTS[0]);
+        Gdx.app.log("RenderBench", "renderer, drops, frame p50 ms, frame p99 ms, draw p50 ms, draw p99 ms");
+    }
+
+    // Scatter drops of every type over the playfield
+    private void populate(int count) {
+        drops.clear();
+        for (int i = 0; i < count; i++) {
+            drops.spawn((byte) MathUtils.random(DropStore.TYPE_COUNT - 1), MathUtils.random(0f, 736f),
+                MathUtils.random(-64f, 480f), 200);
+        }
+    }
+
+    @Override
+    public void render(float delta) {
+        long now = TimeUtils.nanoTime();
+        int measured = frame - WARMUP_FRAMES;
+        if (measured >= 0 && lastFrameTime != 0) {
+            frameNanos[measured] = now - lastFrameTime;
+        }
+        lastFrameTime = now;
+
+        ScreenUtils.clear(0, 0, 0.2f, 1);
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+        long drawStart = TimeUtils.nanoTime();
+        batch.begin();
+        renderers[rendererIndex].draw(batch, drops, (frame % 60) / 60f);
+        batch.end();
+        Gdx.gl.glFinish(); // Count the GPU's share of the draw too
+        if (measured >= 0) {
+            drawNanos[measured] = TimeUtils.nanoTime() - drawStart;
+        }
+
+        frame++;
+        if (frame == WARMUP_FRAMES + MEASURED_FRAMES) {
+            report();
+            nextCase();
+        }
+    }
+
+    private void report() {
+        Arrays.sort(frameNanos);
+        Arrays.sort(drawNanos);
+        StringBuilder line = new StringBuilder(96);
+        line.append(renderers[rendererIndex].getName()).append(", ").append(DROP_COUNTS[countIndex]).append(", ");
+        FrameProfiler.appendMillis(line, frameNanos[MEASURED_FRAMES / 2], 2).append(", ");
+        FrameProfiler.appendMillis(line, frameNanos[MEASURED_FRAMES * 99 / 100], 2).append(", ");
+        FrameProfiler.appendMillis(line, drawNanos[MEASURED_FRAMES / 2], 2).append(", ");
+        FrameProfiler.appendMillis(line, drawNanos[MEASURED_FRAMES * 99 / 100], 2);
+        Gdx.app.log("RenderBench", line.toString());
+    }
+
+    private void nextCase() {
+        frame = 0;
+        lastFrameTime = 0;
+        if (++rendererIndex < renderers.length) {
+            return;
+        }
+        rendererIndex = 0;
+        if (++countIndex < DROP_COUNTS.length) {
+            populate(DROP_COUNTS[countIndex]);
+            return;
+        }
+        Gdx.app.exit();
+    }
+
+    @Override
+    public void hide() {
+        if (renderers != null) {
+            for (DropRenderer renderer : renderers) {
+                renderer.dispose();
+            }
+            renderers = null;
+            assets.releaseGameplay();
+        }
+    }
+}
@@ -3,32 +3,27 @@ package com.hat_quest;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
+// Draws the score kept by the simulation, the best score so far and the leaderboard rank once there is one
 public class ScoreBoard {
-    private int score;
-    private BitmapFont font;
-
-    public ScoreBoard() {
-        font = new BitmapFont();  // Create a font to display the points
-        score = 0;
-
-
+    private final HudText scoreText; // Relaid out only when the score changes
+    private final HudText bestText;
+    private final HudText rankText;
+
+    public ScoreBoard(BitmapFont font) {
+        this.scoreText = new HudText(font, 20, 460);  // Upper left corner
+        this.bestText = new HudText(font, 20, 440);
+        this.rankText = new HudText(font, 20, 420);
     }
 
-    public void addScore(int amount) {
-        score += amount;  // Add points to total score
+    // rank is 0 while the player has none
+    public void draw(SpriteBatch batch, int score, int best, int rank) {
+        scoreText.setValue("Score: ", score, null);
+        scoreText.draw(batch);
+        bestText.setValue("Best: ", best, null);
+        bestText.draw(batch);
+        if (rank > 0) {
+            rankText.setValue("Rank: #", rank, null);
+            rankText.draw(batch);
+        }
     }
-
-    public void resetScore() {
-        score = 0;
-    }
-
-    public void draw(SpriteBatch batch) {
-        font.draw(batch, "Score: " + score, 20, 460);  // Draw the text in the upper left corner
-    }
-
-    public void dispose() {
-        font.dispose();
-    }
-
-
 }
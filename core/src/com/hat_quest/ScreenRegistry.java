@@ -0,0 +1,63 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Screen;
+
+// Owns one instance of every screen, created the first time it is needed and reused on every later visit.
+// Screens acquire per-visit state in show() and let go of it in hide(); they are disposed only with the game.
+public class ScreenRegistry {
+    // Every screen the game can show
+    public enum ScreenId {
+        MENU,
+        SETTINGS,
+        LOADING,
+        GAMEPLAY
+    }
+
+    private final MainGame game;
+    private final Screen[] screens = new Screen[ScreenId.values().length];
+    private int created; // Screens constructed so far, to show reuse in soak runs
+
+    public ScreenRegistry(MainGame game) {
+        this.game = game;
+    }
+
+    // The cached screen for the id, created on first use
+    public Screen get(ScreenId id) {
+        Screen screen = screens[id.ordinal()];
+        if (screen == null) {
+            screen = create(id);
+            screens[id.ordinal()] = screen;
+            created++;
+        }
+        return screen;
+    }
+
+    private Screen create(ScreenId id) {
+        switch (id) {
+            case MENU:
+                return new StartMenuScreen(game);
+            case SETTINGS:
+                return new SettingsScreen(game);
+            case LOADING:
+                return new LoadingScreen(game);
+            case GAMEPLAY:
+                return new MainWork(game);
+            default:
+                throw new IllegalArgumentException("Unknown screen: " + id);
+        }
+    }
+
+    public int getCreatedCount() {
+        return created;
+    }
+
+    // Dispose every screen that was created
+    public void dispose() {
+        for (int i = 0; i < screens.length; i++) {
+            if (screens[i] != null) {
+                screens[i].dispose();
+                screens[i] = null;
+            }
+        }
+    }
+}
@@ -16,19 +16,25 @@ public class SettingsScreen implements Screen {
     private final BitmapFont font; // Font for the title
     private final BitmapFont buttonFont; // Font for the buttons
     private int selectedIndex; // Index of the selected menu item
-    private float volume = 0.5f; // Default volume value
+    private float volume; // Master volume, mirrored from the game's AudioManager
     private boolean isFullscreen = false; // Default fullscreen value
 
     private final Rectangle volumeButtonBounds; // Bounds for the Volume button
     private final Rectangle fullscreenButtonBounds; // Bounds for the Fullscreen button
     private final Rectangle backButtonBounds; // Bounds for the Back button
 
+    private final HudText titleText; // Title, laid out once
+    private final HudText[] buttonTexts; // Button labels, recolored only when the selection changes
+
     // Constructor to initialize the Settings screen
     public SettingsScreen(final MainGame game) {
         this.game = game;
         this.batch = game.getBatch();
+        this.volume = game.getAudio().getMasterVolume();
         this.font = new BitmapFont();
         this.buttonFont = new BitmapFont();
+        this.font.getData().setScale(2); // Scales are fixed, so set them once rather than per frame
+        this.buttonFont.getData().setScale(1.5f);
         this.selectedIndex = 0;
 
         // Initialize button bounds
@@ -36,7 +42,15 @@ public class SettingsScreen implements Screen {
         this.fullscreenButtonBounds = new Rectangle(350, 130, 200, 30);
         this.backButtonBounds = new Rectangle(350, 80, 100, 30);
 
-        setupInputProcessor(); // Set up input handling
+        this.titleText = new HudText(font, 350, 300);
+        this.titleText.setText("Settings");
+        this.buttonTexts = new HudText[] {
+                new HudText(buttonFont, volumeButtonBounds.x, volumeButtonBounds.y),
+                new HudText(buttonFont, fullscreenButtonBounds.x, fullscreenButtonBounds.y),
+                new HudText(buttonFont, backButtonBounds.x, backButtonBounds.y)};
+        this.buttonTexts[1].setText("Toggle Fullscreen");
+        this.buttonTexts[2].setText("Back");
+
     }
 
     // Set up input handling for keyboard input
@@ -80,7 +94,7 @@ public class SettingsScreen implements Screen {
     // Adjust the volume
     private void adjustVolume(float adjustment) {
         volume = Math.max(0, Math.min(1, volume + adjustment));
-        MainWork.updateVolume(volume); // Update volume in MainWork
+        game.getAudio().setMasterVolume(volume); // Applies to the music and every sound played from now on
     }
 
     // Perform action based on the selected button
@@ -117,12 +131,12 @@ public class SettingsScreen implements Screen {
 
     // Navigate back to the start menu
     private void navigateBack() {
-        game.setScreen(new StartMenuScreen(game));
+        game.showScreen(ScreenRegistry.ScreenId.MENU);
     }
 
     @Override
     public void show() {
-        // Any setup code for the screen can go here
+        setupInputProcessor(); // Take over input each time the screen is shown
     }
 
     @Override
@@ -153,22 +167,22 @@ public class SettingsScreen implements Screen {
 
     // Draw the title text
     private void drawTitle() {
-        font.getData().setScale(2);
-        font.draw(batch, "Settings", 350, 300);
+        titleText.draw(batch);
     }
 
     // Draw the buttons
     private void drawButtons() {
-        drawButton("Volume: " + (int) (volume * 100), volumeButtonBounds, 0);
-        drawButton("Toggle Fullscreen", fullscreenButtonBounds, 1);
-        drawButton("Back", backButtonBounds, 2);
+        buttonTexts[0].setValue("Volume: ", Math.round(volume * 100), null); // Relaid out only when the volume changes
+        for (int i = 0; i < buttonTexts.length; i++) {
+            drawButton(buttonTexts[i], i);
+        }
     }
 
-    // Draw a single button
-    private void drawButton(String text, Rectangle bounds, int index) {
-        buttonFont.getData().setScale(1.5f);
-        buttonFont.setColor(selectedIndex == index ? 1 : 0.7f, selectedIndex == index ? 1 : 0.7f, selectedIndex == index ? 1 : 0.7f, 1);
-        buttonFont.draw(batch, text, bounds.x, bounds.y);
+    // Draw a single button, highlighted when selected
+    private void drawButton(HudText text, int index) {
+        float shade = selectedIndex == index ? 1 : 0.7f;
+        text.setColor(shade, shade, shade, 1);
+        text.draw(batch);
     }
 
     @Override
@@ -188,7 +202,7 @@ public class SettingsScreen implements Screen {
 
     @Override
     public void hide() {
-        // Handle screen hide if necessary
+        Gdx.input.setInputProcessor(null); // Stop receiving input while another screen is up
     }
 
     @Override
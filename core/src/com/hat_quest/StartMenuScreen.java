@@ -22,12 +22,17 @@ public class StartMenuScreen implements Screen {
     private final Rectangle settingsButtonBounds; // Bounds for the Settings button
     private final Rectangle exitButtonBounds; // Bounds for the Exit button
 
+    private final HudText titleText; // Title, laid out once
+    private final HudText[] buttonTexts; // Button labels, recolored only when the selection changes
+
     // Constructor to initialize the Start Menu screen
     public StartMenuScreen(final MainGame game) {
         this.game = game;
         this.batch = game.getBatch();
         this.titleFont = new BitmapFont();
         this.buttonFont = new BitmapFont();
+        this.titleFont.getData().setScale(2); // Scales are fixed, so set them once rather than per frame
+        this.buttonFont.getData().setScale(1.5f);
         this.selectedIndex = 0;
 
         // Initialize button bounds
@@ -35,7 +40,13 @@ public class StartMenuScreen implements Screen {
         this.settingsButtonBounds = new Rectangle(350, 130, 100, 30);
         this.exitButtonBounds = new Rectangle(350, 80, 100, 30);
 
-        setupInputProcessor(); // Set up input handling
+        this.titleText = new HudText(titleFont, 200, 300);
+        this.titleText.setText("Bucket Jump Adventure!");
+        this.buttonTexts = new HudText[] {
+                buttonText("Play", playButtonBounds),
+                buttonText("Settings", settingsButtonBounds),
+                buttonText("Exit", exitButtonBounds)};
+
     }
 
     // Set up input handling for keyboard and touch input
@@ -90,10 +101,10 @@ public class StartMenuScreen implements Screen {
         try {
             switch (selectedIndex) {
                 case 0:
-                    game.setScreen(new MainWork(game)); // Start the main game
+                    game.play(); // Start the main game
                     break;
                 case 1:
-                    game.setScreen(new SettingsScreen(game)); // Open settings screen
+                    game.showScreen(ScreenRegistry.ScreenId.SETTINGS); // Open settings screen
                     break;
                 case 2:
                     Gdx.app.exit(); // Exit the game
@@ -110,7 +121,7 @@ public class StartMenuScreen implements Screen {
 
     @Override
     public void show() {
-        // Any setup code for the screen can go here
+        setupInputProcessor(); // Take over input each time the screen is shown
     }
 
     @Override
@@ -139,24 +150,30 @@ public class StartMenuScreen implements Screen {
         batch.end();
     }
 
+    // Create the label for a button
+    private HudText buttonText(String text, Rectangle bounds) {
+        HudText buttonText = new HudText(buttonFont, bounds.x, bounds.y);
+        buttonText.setText(text);
+        return buttonText;
+    }
+
     // Draw the title text
     private void drawTitle() {
-        titleFont.getData().setScale(2);
-        titleFont.draw(batch, "Bucket Jump Adventure!", 200, 300);
+        titleText.draw(batch);
     }
 
     // Draw the buttons
     private void drawButtons() {
-        drawButton("Play", playButtonBounds, 0);
-        drawButton("Settings", settingsButtonBounds, 1);
-        drawButton("Exit", exitButtonBounds, 2);
+        for (int i = 0; i < buttonTexts.length; i++) {
+            drawButton(buttonTexts[i], i);
+        }
     }
 
-    // Draw a single button
-    private void drawButton(String text, Rectangle bounds, int index) {
-        buttonFont.getData().setScale(1.5f);
-        buttonFont.setColor(selectedIndex == index ? 1 : 0.7f, selectedIndex == index ? 1 : 0.7f, selectedIndex == index ? 1 : 0.7f, 1);
-        buttonFont.draw(batch, text, bounds.x, bounds.y);
+    // Draw a single button, highlighted when selected
+    private void drawButton(HudText text, int index) {
+        float shade = selectedIndex == index ? 1 : 0.7f;
+        text.setColor(shade, shade, shade, 1);
+        text.draw(batch);
     }
 
     @Override
@@ -176,7 +193,7 @@ public class StartMenuScreen implements Screen {
 
     @Override
     public void hide() {
-        // Handle screen hide if necessary
+        Gdx.input.setInputProcessor(null); // Stop receiving input while another screen is up
     }
 
     @Override
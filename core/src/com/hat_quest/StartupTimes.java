@@ -0,0 +1,50 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Milestones of one launch in milliseconds since the process started, -1 until reached: create() entered, first
+// menu frame drawn, gameplay screen built behind the menu, and first gameplay frame on screen
+public class StartupTimes {
+    private final long launchMillis; // TimeUtils.millis() when the process started
+    private long create = -1;
+    private long menu = -1;
+    private long gameplayReady = -1;
+    private long gameplay = -1;
+
+    public StartupTimes(long launchMillis) {
+        this.launchMillis = launchMillis;
+    }
+
+    public void markCreate() {
+        create = TimeUtils.millis() - launchMillis;
+    }
+
+    public void markMenu() {
+        menu = TimeUtils.millis() - launchMillis;
+    }
+
+    public void markGameplayReady() {
+        gameplayReady = TimeUtils.millis() - launchMillis;
+    }
+
+    public void markGameplay() {
+        gameplay = TimeUtils.millis() - launchMillis;
+    }
+
+    public long getMenu() {
+        return menu;
+    }
+
+    public long getGameplayReady() {
+        return gameplayReady;
+    }
+
+    public long getGameplay() {
+        return gameplay;
+    }
+
+    // One line of key=value pairs, parsed by the desktop startupBench task
+    public String summary() {
+        return "create=" + create + " menu=" + menu + " gameplayReady=" + gameplayReady + " gameplay=" + gameplay;
+    }
+}
@@ -0,0 +1,73 @@
+package com.hat_quest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded lock-free queue for exactly one producer thread and one consumer thread.
+// Commands are stored field by field in preallocated arrays, so offering one never allocates or blocks:
+// a full queue simply refuses the command.
+public class AudioCommandQueue {
+	private final int mask;
+	private final byte[] ops;
+	private final Object[] targets;
+	private final float[] values;
+	private final AtomicLong head = new AtomicLong(); // Next slot to read, written by the consumer only
+	private final AtomicLong tail = new AtomicLong(); // Next slot to write, written by the producer only
+	private long cachedHead; // Producer's last look at head, refreshed only when the queue seems full
+
+	// Consumer's view of the command taken by the last successful poll()
+	private byte polledOp;
+	private Object polledTarget;
+	private float polledValue;
+
+	public AudioCommandQueue(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // Round up to a power of two
+		this.mask = size - 1;
+		this.ops = new byte[size];
+		this.targets = new Object[size];
+		this.values = new float[size];
+	}
+
+	// Producer only; returns false when the queue is full
+	public boolean offer(byte op, Object target, float value) {
+		long t = tail.get();
+		if (t - cachedHead > mask) {
+			cachedHead = head.get();
+			if (t - cachedHead > mask) {
+				return false;
+			}
+		}
+		int slot = (int) t & mask;
+		ops[slot] = op;
+		targets[slot] = target;
+		values[slot] = value;
+		tail.lazySet(t + 1); // Publishes the slot writes above to the consumer
+		return true;
+	}
+
+	// Consumer only; takes the oldest command into getOp/getTarget/getValue, or returns false when empty
+	public boolean poll() {
+		long h = head.get();
+		if (h == tail.get()) {
+			return false;
+		}
+		int slot = (int) h & mask;
+		polledOp = ops[slot];
+		polledTarget = targets[slot];
+		polledValue = values[slot];
+		targets[slot] = null; // Don't keep sounds reachable from the queue
+		head.lazySet(h + 1); // Hands the slot back to the producer
+		return true;
+	}
+
+	public byte getOp() {
+		return polledOp;
+	}
+
+	public Object getTarget() {
+		return polledTarget;
+	}
+
+	public float getValue() {
+		return polledValue;
+	}
+}
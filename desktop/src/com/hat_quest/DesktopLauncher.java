@@ -2,17 +2,117 @@ package com.hat_quest;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.audio.Lwjgl3Audio;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.hat_quest.MainWork;
+import com.hat_quest.server.LeaderboardServer;
+import com.hat_quest.sim.ParallelDropUpdater;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
+// Pass --uncapped to render as fast as the display allows; the simulation still ticks at a fixed rate
+// Pass --nav-soak=N to cycle through N menu navigations, logging heap and texture counts, then exit
+// Pass --record to save every run to ~/.bucket-jump-adventure/replays/, or --replay=FILE to play one back; add --max-speed to play it flat out
+// Pass --drop-renderer=instanced to draw drops with GL3 instancing where OpenGL 3.2 is available, --render-bench to compare the drop renderers
+// Pass --leaderboard=URL to submit runs to a leaderboard server, or --leaderboard-local to run one in-process
+// Pass --startup-bench to go from launch straight into gameplay, print the startup times and exit
 public class DesktopLauncher {
 	public static void main(String[] arg) {
+		boolean uncapped = false;
+		int navigationSoak = 0;
+		boolean record = false;
+		String replayFile = null;
+		boolean maxSpeed = false;
+		boolean instancedDrops = false;
+		boolean renderBench = false;
+		String leaderboardUrl = null;
+		boolean localLeaderboard = false;
+		boolean startupBench = false;
+		for (String a : arg) {
+			if ("--uncapped".equals(a)) {
+				uncapped = true;
+			} else if (a.startsWith("--nav-soak=")) {
+				navigationSoak = Integer.parseInt(a.substring("--nav-soak=".length()));
+			} else if ("--record".equals(a)) {
+				record = true;
+			} else if (a.startsWith("--replay=")) {
+				replayFile = new File(a.substring("--replay=".length())).getAbsolutePath();
+			} else if ("--max-speed".equals(a)) {
+				maxSpeed = true;
+			} else if ("--drop-renderer=instanced".equals(a)) {
+				instancedDrops = true;
+			} else if (a.startsWith("--leaderboard=")) {
+				leaderboardUrl = a.substring("--leaderboard=".length());
+			} else if ("--leaderboard-local".equals(a)) {
+				localLeaderboard = true;
+			} else if ("--startup-bench".equals(a)) {
+				startupBench = true;
+			} else if ("--render-bench".equals(a)) {
+				renderBench = true;
+				uncapped = true; // Frame times must not be held to the display rate
+			}
+		}
+
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
-		config.setForegroundFPS(60);
 		config.setTitle("Bucket jump adventure!");
 		config.setWindowedMode(800, 480);
-		config.useVsync(true);
-		config.setForegroundFPS(60);
-		new Lwjgl3Application(new MainGame(), config);
+		if ((instancedDrops || renderBench) && !GlContextProbe.supportsCoreProfile(3, 2)) {
+			// Asking for it anyway would fail window creation; with the default context DropRenderer.create falls back to SpriteBatch
+			System.err.println("OpenGL 3.2 core is not available, starting with the default context");
+		} else if (instancedDrops || renderBench) {
+			// Instancing needs a GL 3.2 core context, whose GLSL lacks the 1.20 keywords every shader here uses
+			config.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+			ShaderProgram.prependVertexCode = "#version 150\n#define attribute in\n#define varying out\n";
+			ShaderProgram.prependFragmentCode = "#version 150\n#define varying in\n#define texture2D texture\n"
+				+ "#define gl_FragColor fragColor\nout vec4 fragColor;\n";
+		}
+		if (uncapped) {
+			config.useVsync(false);
+			config.setForegroundFPS(0); // No frame limit
+		} else {
+			config.useVsync(true);
+			config.setForegroundFPS(60);
+		}
+		MainGame game = new MainGame();
+		game.setLaunchMillis(ManagementFactory.getRuntimeMXBean().getStartTime()); // Counts JVM startup too
+		game.setBackgroundWarmup(new SimWarmup(game));
+		game.setStartupBench(startupBench);
+		game.setNavigationSoak(navigationSoak);
+		game.setRecordReplays(record);
+		game.setReplay(replayFile, maxSpeed);
+		game.setGcStats(new JvmGcStats());
+		final ThreadedAudioDispatcher audioDispatcher = new ThreadedAudioDispatcher();
+		game.setAudioDispatcher(audioDispatcher); // Sound and music calls run on their own thread
+		game.setInstancedDrops(instancedDrops);
+		game.setRenderBench(renderBench);
+		game.setDropExecutor(new ParallelDropUpdater(), ParallelDropUpdater.DEFAULT_THRESHOLD);
+		try {
+			File scores = new File(System.getProperty("user.home"), MainGame.DATA_DIRECTORY + "scores"); // Where Gdx.files.external puts it
+			game.setHighScoreStore(new JournalHighScoreStore(scores));
+		} catch (IOException e) {
+			// Log the exception; scores are then kept for this session only
+			System.err.println("Error during high score loading: " + e.getMessage());
+			e.printStackTrace();
+		}
+		if (localLeaderboard) {
+			try {
+				LeaderboardServer server = new LeaderboardServer(0); // Any free port; lives as long as the game
+				server.start();
+				leaderboardUrl = "http://127.0.0.1:" + server.getPort();
+			} catch (IOException e) {
+				// Log the exception; runs then stay local
+				System.err.println("Error during leaderboard startup: " + e.getMessage());
+				e.printStackTrace();
+			}
+		}
+		game.setLeaderboardUrl(leaderboardUrl);
+		new Lwjgl3Application(game, config) {
+			@Override
+			public Lwjgl3Audio createAudio(Lwjgl3ApplicationConfiguration configuration) {
+				return audioDispatcher.wrap(super.createAudio(configuration)); // Only the audio worker calls it from here on
+			}
+		};
 	}
 }
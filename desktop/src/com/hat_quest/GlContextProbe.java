@@ -0,0 +1,34 @@
+package com.hat_quest;
+
+import org.lwjgl.glfw.GLFW;
+
+// Asks GLFW for a hidden window with an OpenGL core context of the given version before the game's window exists.
+// Lwjgl3Application fails outright when the context it is configured for can't be made, so the launcher checks
+// here first and keeps the default context when the answer is no.
+public final class GlContextProbe {
+	private GlContextProbe() {
+	}
+
+	public static boolean supportsCoreProfile(int major, int minor) {
+		if (!GLFW.glfwInit()) {
+			return false; // The application's own init will report why
+		}
+		try {
+			// Same hints the backend uses for GLEmulation.GL30
+			GLFW.glfwDefaultWindowHints();
+			GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+			GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MAJOR, major);
+			GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MINOR, minor);
+			GLFW.glfwWindowHint(GLFW.GLFW_OPENGL_FORWARD_COMPAT, GLFW.GLFW_TRUE);
+			GLFW.glfwWindowHint(GLFW.GLFW_OPENGL_PROFILE, GLFW.GLFW_OPENGL_CORE_PROFILE);
+			long window = GLFW.glfwCreateWindow(1, 1, "", 0, 0);
+			if (window == 0) {
+				return false;
+			}
+			GLFW.glfwDestroyWindow(window);
+			return true;
+		} finally {
+			GLFW.glfwTerminate(); // Lwjgl3Application initializes GLFW again with its own hints
+		}
+	}
+}
@@ -0,0 +1,365 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+// High scores on disk. Each finished run is appended to a journal as a fixed-size record with a CRC32 and
+// synced, so a kill mid-write leaves at most one torn record at the end, which fails its checksum and is
+// skipped. The checksum includes the journal's generation, so records left over from before the journal was
+// last restarted fail it too and the file never has to be truncated. Compaction merges the journal into a
+// snapshot sorted best first, written to a temporary file and renamed over the old one, so the snapshot is
+// always whole. Generation numbers tie a journal to the snapshot that folded it in, so a crash between the
+// two steps never counts a run twice. Opening reads only the head of the snapshot plus the short journal,
+// however many runs the snapshot holds.
+// record() only updates the in-memory index and queues the run; appending, syncing and compacting happen on a
+// writer thread, so a run killed within moments of game over may be lost but never half written.
+public class JournalHighScoreStore implements HighScoreStore {
+	private static final int VERSION = 1;
+	private static final int JOURNAL_MAGIC = 0x424a484a; // "BJHJ"
+	private static final int SNAPSHOT_MAGIC = 0x424a4853; // "BJHS"
+	private static final int JOURNAL_HEADER_BYTES = 16; // magic, version, generation
+	private static final int SNAPSHOT_HEADER_BYTES = 32; // magic, version, covered generation, run count, 0, CRC32 of these
+	private static final int RECORD_BYTES = 28; // score, duration, seed, timestamp, CRC32 of generation and these
+	private static final int SNAPSHOT_RECORD_GENERATION = 0; // Generation snapshot records are checksummed with
+	private static final int COMPACT_RECORDS = 65536; // Journal length at which it is folded into the snapshot
+	private static final int CHUNK_RECORDS = 4096; // Records read or written at a time while compacting
+	private static final long[] STOP = new long[0]; // Queued by dispose() to end the writer
+
+	private final File snapshotFile;
+	private final File journalFile;
+	private final HighScoreIndex index = new HighScoreIndex(); // Render thread only once the writer runs
+	private final BlockingQueue<long[]> pending = new LinkedBlockingQueue<>(); // score, duration, seed, timestamp
+	private final Thread writer;
+
+	// Opening, then the writer thread only
+	private final byte[] record = new byte[RECORD_BYTES];
+	private final CRC32 crc = new CRC32();
+	private long snapshotGeneration; // Newest journal generation folded into the snapshot, 0 without a snapshot
+	private long snapshotRuns;
+	private FileChannel journal;
+	private long journalGeneration;
+	private long journalEnd; // Where the next record goes; anything after it is a torn write being overwritten
+	private int journalRuns;
+	private int compactAt = COMPACT_RECORDS; // Journal length that triggers the next compaction
+
+	public JournalHighScoreStore(File directory) throws IOException {
+		directory.mkdirs();
+		snapshotFile = new File(directory, "scores.snapshot");
+		journalFile = new File(directory, "scores.journal");
+		openSnapshot();
+		openJournal();
+		index.setRunCount(snapshotRuns + journalRuns);
+		writer = new Thread(this::writeLoop, "high-scores");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	// Load the best runs from the head of the snapshot; the runs are sorted, so nothing further is read.
+	// Plain reads rather than a mapping, so nothing keeps the file open when compaction replaces it.
+	private void openSnapshot() throws IOException {
+		if (!snapshotFile.exists()) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+			if (channel.size() < SNAPSHOT_HEADER_BYTES) {
+				throw new IOException("Unreadable high score snapshot " + snapshotFile);
+			}
+			readFully(channel, header, 0);
+			if (header.getInt(0) != SNAPSHOT_MAGIC || header.getInt(4) != VERSION
+				|| headerChecksum(header.array()) != header.getInt(SNAPSHOT_HEADER_BYTES - 4)) {
+				throw new IOException("Unreadable high score snapshot " + snapshotFile);
+			}
+			snapshotGeneration = header.getLong(8);
+			snapshotRuns = header.getLong(16);
+			int held = (int) Math.min(snapshotRuns, HighScoreIndex.CAPACITY);
+			ByteBuffer head = ByteBuffer.allocate(held * RECORD_BYTES);
+			readFully(channel, head, SNAPSHOT_HEADER_BYTES);
+			for (int r = 0; r < held; r++) {
+				int offset = r * RECORD_BYTES;
+				if (recordChecksum(head.array(), offset, SNAPSHOT_RECORD_GENERATION) != head.getInt(offset + RECORD_BYTES - 4)) {
+					throw new IOException("Corrupt record in high score snapshot " + snapshotFile);
+				}
+				insertRecord(head, offset);
+			}
+		}
+	}
+
+	// Replay the journal into the index, or start a new one when it is missing or already folded in.
+	// The journal is mapped for the scan; it is only ever written in place, never renamed or truncated.
+	private void openJournal() throws IOException {
+		journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+		long size = journal.size();
+		MappedByteBuffer map = size >= JOURNAL_HEADER_BYTES ? journal.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+		if (map == null || map.getInt(0) != JOURNAL_MAGIC || map.getInt(4) != VERSION
+			|| map.getLong(8) <= snapshotGeneration) {
+			startJournal(snapshotGeneration + 1);
+			return;
+		}
+		journalGeneration = map.getLong(8);
+		ByteBuffer scratch = ByteBuffer.wrap(record);
+		long end = JOURNAL_HEADER_BYTES;
+		while (end + RECORD_BYTES <= size) {
+			map.position((int) end);
+			map.get(record);
+			if (recordChecksum(record, 0, journalGeneration) != scratch.getInt(RECORD_BYTES - 4)) {
+				break; // A torn last record stops the scan here and is overwritten by the next run
+			}
+			insertRecord(scratch, 0);
+			journalRuns++;
+			end += RECORD_BYTES;
+		}
+		journalEnd = end;
+	}
+
+	// Empty the journal and give it a new generation; old records stay on disk but no longer pass the checksum
+	private void startJournal(long generation) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+		header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+		writeFully(journal, header, 0);
+		journal.force(true);
+		journalGeneration = generation;
+		journalEnd = JOURNAL_HEADER_BYTES;
+		journalRuns = 0;
+		compactAt = COMPACT_RECORDS;
+	}
+
+	@Override
+	public void record(int score, int durationMillis, long seed, long timestamp) {
+		index.record(score, durationMillis, seed, timestamp);
+		pending.add(new long[] {score, durationMillis, seed, timestamp});
+	}
+
+	// Writer thread: append queued runs with one sync per batch, and compact when the journal is long enough.
+	// Compaction only follows a batch, so it runs once the game is up, and never holds up closing
+	private void writeLoop() {
+		boolean stopping = false;
+		while (!stopping) {
+			long[] run;
+			try {
+				run = pending.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			try {
+				int appended = 0;
+				for (; run != null; run = pending.poll()) {
+					if (run == STOP) {
+						stopping = true;
+						break;
+					}
+					append(run);
+					appended++;
+				}
+				if (appended > 0) {
+					journal.force(false); // On disk before the runs count as saved
+				}
+			} catch (IOException e) {
+				// Log the exception; the runs stay in memory for this session
+				System.err.println("Error during high score saving: " + e.getMessage());
+				e.printStackTrace();
+			}
+			if (!stopping && journalRuns >= compactAt) {
+				try {
+					compact();
+				} catch (IOException e) {
+					// Log the exception and try again only after as many more runs, not after every one
+					System.err.println("Error during high score compaction: " + e.getMessage());
+					e.printStackTrace();
+					compactAt = journalRuns + COMPACT_RECORDS;
+				}
+			}
+		}
+	}
+
+	private void append(long[] run) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		buffer.putInt((int) run[0]).putInt((int) run[1]).putLong(run[2]).putLong(run[3]);
+		buffer.putInt(recordChecksum(record, 0, journalGeneration));
+		buffer.flip();
+		writeFully(journal, buffer, journalEnd);
+		journalEnd += RECORD_BYTES;
+		journalRuns++;
+	}
+
+	// Merge the journal's runs into a new snapshot, swap it in, then start the next journal generation
+	private void compact() throws IOException {
+		long start = System.nanoTime();
+		ByteBuffer journalRecords = ByteBuffer.allocate(journalRuns * RECORD_BYTES);
+		readFully(journal, journalRecords, JOURNAL_HEADER_BYTES);
+		Integer[] order = new Integer[journalRuns]; // Journal positions, best first
+		for (int r = 0; r < journalRuns; r++) {
+			order[r] = r;
+		}
+		Arrays.sort(order, (a, b) -> compareRecords(journalRecords, a * RECORD_BYTES, journalRecords, b * RECORD_BYTES));
+
+		File tempFile = new File(snapshotFile.getPath() + ".tmp");
+		long runs = snapshotRuns + journalRuns;
+		try (FileChannel out = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			FileChannel old = snapshotRuns > 0 ? FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ) : null) {
+			ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+			header.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(journalGeneration).putLong(runs).putInt(0);
+			header.putInt(headerChecksum(header.array()));
+			header.flip();
+			writeFully(out, header, 0);
+			long outPosition = SNAPSHOT_HEADER_BYTES;
+
+			ByteBuffer oldChunk = ByteBuffer.allocate(RECORD_BYTES * CHUNK_RECORDS);
+			oldChunk.limit(0);
+			long oldPosition = SNAPSHOT_HEADER_BYTES;
+			long oldLeft = snapshotRuns; // Old snapshot runs not yet read
+			ByteBuffer chunk = ByteBuffer.allocate(RECORD_BYTES * CHUNK_RECORDS);
+			int next = 0;
+			// Merge two runs sorted best first; equal scores go by timestamp, oldest first, as in HighScoreIndex
+			while (oldLeft > 0 || oldChunk.hasRemaining() || next < journalRuns) {
+				if (!oldChunk.hasRemaining() && oldLeft > 0) {
+					int records = (int) Math.min(oldLeft, CHUNK_RECORDS);
+					oldChunk.clear();
+					oldChunk.limit(records * RECORD_BYTES);
+					readFully(old, oldChunk, oldPosition);
+					oldChunk.flip();
+					oldPosition += records * RECORD_BYTES;
+					oldLeft -= records;
+				}
+				if (!chunk.hasRemaining()) {
+					chunk.flip();
+					outPosition += writeFully(out, chunk, outPosition);
+					chunk.clear();
+				}
+				boolean takeOld = oldChunk.hasRemaining() && (next == journalRuns || compareRecords(oldChunk,
+					oldChunk.position(), journalRecords, order[next] * RECORD_BYTES) <= 0);
+				if (takeOld) {
+					chunk.put(oldChunk.array(), oldChunk.position(), RECORD_BYTES); // Already checksummed for the snapshot
+					oldChunk.position(oldChunk.position() + RECORD_BYTES);
+				} else {
+					int recordStart = chunk.position();
+					chunk.put(journalRecords.array(), order[next++] * RECORD_BYTES, RECORD_BYTES - 4);
+					chunk.putInt(recordChecksum(chunk.array(), recordStart, SNAPSHOT_RECORD_GENERATION));
+				}
+			}
+			chunk.flip();
+			writeFully(out, chunk, outPosition);
+			out.force(true);
+		}
+		// Nothing holds the old snapshot open or mapped any more, so the rename also works on Windows
+		Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+			StandardCopyOption.ATOMIC_MOVE);
+		snapshotGeneration = journalGeneration;
+		snapshotRuns = runs;
+		startJournal(journalGeneration + 1); // Until this lands, the stale journal is recognised by its generation
+		Gdx.app.log("HighScores", "Compacted " + runs + " high score runs in " + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+
+	// Negative when the record at offsetA ranks ahead: higher score, then older timestamp
+	private static int compareRecords(ByteBuffer a, int offsetA, ByteBuffer b, int offsetB) {
+		int scoreA = a.getInt(offsetA);
+		int scoreB = b.getInt(offsetB);
+		if (scoreA != scoreB) {
+			return scoreA > scoreB ? -1 : 1;
+		}
+		return Long.compare(a.getLong(offsetA + 16), b.getLong(offsetB + 16));
+	}
+
+	private void insertRecord(ByteBuffer buffer, int offset) {
+		index.insert(buffer.getInt(offset), buffer.getInt(offset + 4), buffer.getLong(offset + 8),
+			buffer.getLong(offset + 16));
+	}
+
+	private int recordChecksum(byte[] data, int offset, long generation) {
+		crc.reset();
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			crc.update((int) (generation >>> shift));
+		}
+		crc.update(data, offset, RECORD_BYTES - 4);
+		return (int) crc.getValue();
+	}
+
+	private int headerChecksum(byte[] data) {
+		crc.reset();
+		crc.update(data, 0, SNAPSHOT_HEADER_BYTES - 4);
+		return (int) crc.getValue();
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("High score file ended early");
+			}
+			position += read;
+		}
+	}
+
+	// Returns the bytes written
+	private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		int written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer, position + written);
+		}
+		return written;
+	}
+
+	@Override
+	public long getRunCount() {
+		return index.getRunCount();
+	}
+
+	@Override
+	public int getTopCount() {
+		return index.getTopCount();
+	}
+
+	@Override
+	public int getTopScore(int i) {
+		return index.getTopScore(i);
+	}
+
+	@Override
+	public int getTopDuration(int i) {
+		return index.getTopDuration(i);
+	}
+
+	@Override
+	public long getTopSeed(int i) {
+		return index.getTopSeed(i);
+	}
+
+	@Override
+	public long getTopTimestamp(int i) {
+		return index.getTopTimestamp(i);
+	}
+
+	@Override
+	public int getBest() {
+		return index.getBest();
+	}
+
+	// Let the writer finish the queued runs, then close the journal
+	@Override
+	public void dispose() {
+		pending.add(STOP);
+		try {
+			writer.join(5000);
+			journal.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			// Log the exception; every run was already synced
+			System.err.println("Error during high score store closing: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+}
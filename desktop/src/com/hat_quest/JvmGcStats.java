@@ -0,0 +1,28 @@
+package com.hat_quest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// GC counters from the JVM's collector beans, looked up once so polling them every frame allocates nothing
+public class JvmGcStats implements GcStats {
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	@Override
+	public long getCollectionCount() {
+		long count = 0;
+		for (int i = 0; i < collectors.size(); i++) {
+			count += Math.max(0, collectors.get(i).getCollectionCount()); // -1 when a collector doesn't report
+		}
+		return count;
+	}
+
+	@Override
+	public long getCollectionMillis() {
+		long millis = 0;
+		for (int i = 0; i < collectors.size(); i++) {
+			millis += Math.max(0, collectors.get(i).getCollectionTime());
+		}
+		return millis;
+	}
+}
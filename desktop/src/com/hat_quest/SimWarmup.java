@@ -0,0 +1,50 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.Gdx;
+import com.hat_quest.sim.RandomInput;
+import com.hat_quest.sim.SimConfig;
+import com.hat_quest.sim.World;
+
+// Plays a throwaway headless game on a low-priority thread while the menu is up, so the simulation classes are
+// loaded and its hot loops compiled before the first real run instead of during it. It plays by the game's own
+// config, spawn schedule included, so the timing wheel and wave paths a real run takes are the ones compiled
+public class SimWarmup implements Runnable {
+	private static final int TICKS = 20000; // A few minutes of play; enough for the JIT to compile the tick
+
+	private final MainGame game;
+
+	public SimWarmup(MainGame game) {
+		this.game = game;
+	}
+
+	// Called by the game on the render thread
+	@Override
+	public void run() {
+		SimConfig config = game.newSimConfig();
+		Thread thread = new Thread(() -> warmUp(config), "sim-warmup");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	private void warmUp(SimConfig config) {
+		try {
+			long start = System.nanoTime();
+			RandomInput input = new RandomInput(1);
+			World world = new World(config, input, 1);
+			for (int t = 0; t < TICKS; t++) {
+				input.next();
+				world.step();
+				world.getEvents().clear(); // Nobody drains this world's events
+				if (world.isGameOver()) {
+					world.restart();
+				}
+			}
+			Gdx.app.log("SimWarmup", "Warmed up the simulation in " + (System.nanoTime() - start) / 1000000 + " ms");
+		} catch (Exception e) {
+			// Log the exception; the game only starts a little slower
+			System.err.println("Error during simulation warmup: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,340 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.lwjgl3.audio.Lwjgl3Audio;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.LockSupport;
+
+// Hands audio calls to a worker thread, so backend latency never lands on the render thread. The backend is not
+// thread-safe, so it must be handed over with wrap() when the application creates it: from then on the worker is
+// the only thread that calls it, including its per-frame update(), and the render thread never waits on it.
+// Sound plays go through a single-producer queue; enqueueing is a few array writes and never waits, and when the
+// worker falls too far behind the play is dropped and counted. Music changes are never dropped: each Music has a
+// slot holding its latest wanted state, volume and looping, which the worker applies whenever it changes.
+// The worker polls rather than being woken, so the render thread makes no system calls either; commands start
+// within IDLE_PARK_NANOS. Creating and disposing sounds and music are rare calls that also run on the worker.
+public class ThreadedAudioDispatcher implements AudioDispatcher {
+	private static final byte PLAY_SOUND = 0;
+
+	private static final int CAPACITY = 1024; // Sound plays in flight; a frame issues a handful
+	private static final int BATCH = 64; // Sound plays run per turn before music, tasks and the backend update get theirs
+	private static final long IDLE_PARK_NANOS = 1000000L; // Worker sleep while there is nothing to do
+
+	private final AudioCommandQueue queue = new AudioCommandQueue(CAPACITY);
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Creation and disposal
+	private volatile Lwjgl3Audio backend; // Set once the application has created it
+	private volatile MusicSlot[] musicSlots = new MusicSlot[0]; // Replaced, never changed, when a Music is added
+	private final Thread worker;
+	private volatile boolean running = true;
+
+	// Render-thread counters
+	private long commands;
+	private long totalNanos;
+	private long maxNanos;
+	private long rejected;
+
+	public ThreadedAudioDispatcher() {
+		worker = new Thread(this::drainLoop, "audio");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	// Take over the backend the application creates; only the worker calls it from here on
+	public Lwjgl3Audio wrap(Lwjgl3Audio backend) {
+		this.backend = backend;
+		return new WorkerAudio(backend, this);
+	}
+
+	// Run a backend call on the worker and wait for its result; for loading and shutdown, never per frame.
+	// Once the worker has stopped the call runs on the caller, as nothing else touches the backend then
+	<T> T call(Callable<T> call) {
+		if (Thread.currentThread() == worker || !worker.isAlive()) {
+			try {
+				return call.call();
+			} catch (Exception e) {
+				throw new GdxRuntimeException("Audio call failed", e);
+			}
+		}
+		FutureTask<T> task = new FutureTask<>(call);
+		tasks.add(task);
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GdxRuntimeException("Interrupted waiting for an audio call", e);
+		} catch (ExecutionException e) {
+			throw new GdxRuntimeException("Audio call failed", e.getCause());
+		}
+	}
+
+	// Dispose a backend Sound on the worker after every play already queued; never waits
+	void disposeSound(Sound sound) {
+		runLater(sound::dispose);
+	}
+
+	// Dispose a wrapped Music on the worker and forget its slot; never waits
+	void disposeMusic(WorkerAudio.WorkerMusic music) {
+		runLater(() -> {
+			for (MusicSlot slot : musicSlots) {
+				if (slot.music == music) {
+					slot.disposed = true;
+				}
+			}
+			music.music.dispose();
+		});
+	}
+
+	private void runLater(Runnable task) {
+		if (worker.isAlive()) {
+			tasks.add(task);
+		} else {
+			task.run();
+		}
+	}
+
+	private void count(long start) {
+		long nanos = System.nanoTime() - start;
+		commands++;
+		totalNanos += nanos;
+		if (nanos > maxNanos) {
+			maxNanos = nanos;
+		}
+	}
+
+	@Override
+	public void playSound(Sound sound, float volume) {
+		long start = System.nanoTime();
+		if (!queue.offer(PLAY_SOUND, sound, volume)) {
+			rejected++;
+		}
+		count(start);
+	}
+
+	@Override
+	public void playMusic(Music music) {
+		long start = System.nanoTime();
+		MusicSlot slot = slot(music);
+		slot.playing = true;
+		slot.version++;
+		count(start);
+	}
+
+	@Override
+	public void pauseMusic(Music music) {
+		long start = System.nanoTime();
+		MusicSlot slot = slot(music);
+		slot.playing = false;
+		slot.version++;
+		count(start);
+	}
+
+	@Override
+	public void stopMusic(Music music) {
+		long start = System.nanoTime();
+		MusicSlot slot = slot(music);
+		slot.playing = false;
+		slot.stops++; // Counted rather than flagged, so a stop followed by a play still rewinds
+		slot.version++;
+		count(start);
+	}
+
+	@Override
+	public void setMusicVolume(Music music, float volume) {
+		long start = System.nanoTime();
+		MusicSlot slot = slot(music);
+		slot.volume = volume;
+		slot.version++;
+		count(start);
+	}
+
+	@Override
+	public void setMusicLooping(Music music, boolean looping) {
+		long start = System.nanoTime();
+		MusicSlot slot = slot(music);
+		slot.looping = looping;
+		slot.version++;
+		count(start);
+	}
+
+	// Render thread: the slot for a Music, added the first time it is seen
+	private MusicSlot slot(Music music) {
+		MusicSlot[] slots = musicSlots;
+		for (MusicSlot slot : slots) {
+			if (slot.music == music) {
+				return slot;
+			}
+		}
+		MusicSlot slot = new MusicSlot(music);
+		slots = Arrays.copyOf(slots, slots.length + 1);
+		slots[slots.length - 1] = slot;
+		musicSlots = slots; // Publishes the new slot to the worker
+		return slot;
+	}
+
+	// Worker: apply music changes, run sound plays in queue order and keep the backend updated until disposed,
+	// then finish what is left
+	private void drainLoop() {
+		while (running) {
+			if (!drainBatch()) {
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+			}
+		}
+		while (drainBatch()) {
+			// Drain
+		}
+	}
+
+	// Returns false when there was nothing to do
+	private boolean drainBatch() {
+		boolean worked = applyMusic();
+		int ran = 0;
+		while (ran < BATCH && runNext()) {
+			ran++;
+		}
+		if (ran < BATCH) {
+			worked |= runTasks(); // Only with the plays queued before them done, so no sound plays after disposal
+		}
+		updateBackend();
+		return worked || ran > 0;
+	}
+
+	private boolean runTasks() {
+		boolean worked = false;
+		for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+			worked = true;
+			try {
+				task.run();
+			} catch (Exception e) {
+				// Log the exception and keep the worker alive; call() reports its own failures to the caller
+				System.err.println("Error during audio task: " + e.getMessage());
+				e.printStackTrace();
+			}
+		}
+		return worked;
+	}
+
+	// Refill streaming music buffers and free finished sources, as the application would once per frame
+	private void updateBackend() {
+		Lwjgl3Audio audio = backend;
+		if (audio == null) {
+			return;
+		}
+		try {
+			audio.update();
+		} catch (Exception e) {
+			// Log the exception and keep the worker alive
+			System.err.println("Error during audio update: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
+	private boolean applyMusic() {
+		boolean worked = false;
+		for (MusicSlot slot : musicSlots) {
+			int version = slot.version;
+			if (version == slot.appliedVersion || slot.disposed) {
+				continue;
+			}
+			worked = true;
+			try {
+				int stops = slot.stops;
+				if (stops != slot.appliedStops) {
+					slot.music.stop();
+					slot.appliedStops = stops;
+				}
+				slot.music.setLooping(slot.looping);
+				slot.music.setVolume(slot.volume);
+				if (slot.playing) {
+					if (!slot.music.isPlaying()) {
+						slot.music.play();
+					}
+				} else if (slot.music.isPlaying()) {
+					slot.music.pause();
+				}
+			} catch (Exception e) {
+				// Log the exception and keep the worker alive
+				System.err.println("Error during music command: " + e.getMessage());
+				e.printStackTrace();
+			}
+			slot.appliedVersion = version; // Fields changed since the version was read get applied next turn
+		}
+		return worked;
+	}
+
+	private boolean runNext() {
+		if (!queue.poll()) {
+			return false;
+		}
+		try {
+			if (queue.getOp() == PLAY_SOUND) {
+				((Sound) queue.getTarget()).play(queue.getValue());
+			}
+		} catch (Exception e) {
+			// Log the exception and keep the worker alive
+			System.err.println("Error during audio command: " + e.getMessage());
+			e.printStackTrace();
+		}
+		return true;
+	}
+
+	@Override
+	public long getCommandCount() {
+		return commands;
+	}
+
+	@Override
+	public long getTotalCallNanos() {
+		return totalNanos;
+	}
+
+	@Override
+	public long getMaxCallNanos() {
+		return maxNanos;
+	}
+
+	@Override
+	public long getRejectedCount() {
+		return rejected;
+	}
+
+	// Stop the worker after it has run everything already queued; later backend calls run on their caller
+	@Override
+	public void dispose() {
+		running = false;
+		try {
+			worker.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!worker.isAlive()) {
+			runTasks(); // Any handed over while the worker was finishing
+		}
+	}
+
+	// Latest wanted state of one Music, written by the render thread and applied by the worker
+	private static final class MusicSlot {
+		final Music music;
+		volatile boolean playing;
+		volatile int stops; // stop() calls so far
+		volatile float volume;
+		volatile boolean looping;
+		volatile int version; // Bumped after every change, so the worker sees the fields written before it
+
+		// Worker only
+		int appliedVersion;
+		int appliedStops;
+		boolean disposed;
+
+		MusicSlot(Music music) {
+			this.music = music;
+			this.volume = music.getVolume(); // Plain field reads, so safe on the render thread
+			this.looping = music.isLooping();
+		}
+	}
+}
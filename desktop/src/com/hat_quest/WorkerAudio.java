@@ -0,0 +1,239 @@
+package com.hat_quest;
+
+import com.badlogic.gdx.audio.AudioDevice;
+import com.badlogic.gdx.audio.AudioRecorder;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.lwjgl3.audio.Lwjgl3Audio;
+import com.badlogic.gdx.files.FileHandle;
+
+// The LWJGL3 audio backend handed over to the ThreadedAudioDispatcher's worker, which becomes the only thread
+// calling it once it exists. The backend's source pool, sound id maps and playing music list are plain
+// collections, so update() is left to the worker and does nothing on the render thread. Sounds and music are
+// created on the worker, the caller waiting as it would for the backend itself, and come back wrapped so that
+// disposing them, which AssetManager does on the render thread, is queued to the worker as well.
+public class WorkerAudio implements Lwjgl3Audio {
+	private final Lwjgl3Audio backend;
+	private final ThreadedAudioDispatcher dispatcher;
+
+	public WorkerAudio(Lwjgl3Audio backend, ThreadedAudioDispatcher dispatcher) {
+		this.backend = backend;
+		this.dispatcher = dispatcher;
+	}
+
+	@Override
+	public void update() {
+		// The worker updates the backend between its own calls
+	}
+
+	@Override
+	public AudioDevice newAudioDevice(int samplingRate, boolean isMono) {
+		return dispatcher.call(() -> backend.newAudioDevice(samplingRate, isMono));
+	}
+
+	@Override
+	public AudioRecorder newAudioRecorder(int samplingRate, boolean isMono) {
+		return dispatcher.call(() -> backend.newAudioRecorder(samplingRate, isMono));
+	}
+
+	@Override
+	public Sound newSound(FileHandle fileHandle) {
+		return new WorkerSound(dispatcher.call(() -> backend.newSound(fileHandle)), dispatcher);
+	}
+
+	@Override
+	public Music newMusic(FileHandle file) {
+		return new WorkerMusic(dispatcher.call(() -> backend.newMusic(file)), dispatcher);
+	}
+
+	@Override
+	public boolean switchOutputDevice(String deviceIdentifier) {
+		return dispatcher.call(() -> backend.switchOutputDevice(deviceIdentifier));
+	}
+
+	@Override
+	public String[] getAvailableOutputDevices() {
+		return dispatcher.call(backend::getAvailableOutputDevices);
+	}
+
+	@Override
+	public void dispose() {
+		dispatcher.call(() -> {
+			backend.dispose();
+			return null;
+		});
+	}
+
+	// A backend Sound whose dispose() goes to the worker; the dispatcher's worker makes every other call
+	static final class WorkerSound implements Sound {
+		final Sound sound;
+		private final ThreadedAudioDispatcher dispatcher;
+
+		WorkerSound(Sound sound, ThreadedAudioDispatcher dispatcher) {
+			this.sound = sound;
+			this.dispatcher = dispatcher;
+		}
+
+		@Override
+		public long play() {
+			return sound.play();
+		}
+
+		@Override
+		public long play(float volume) {
+			return sound.play(volume);
+		}
+
+		@Override
+		public long play(float volume, float pitch, float pan) {
+			return sound.play(volume, pitch, pan);
+		}
+
+		@Override
+		public long loop() {
+			return sound.loop();
+		}
+
+		@Override
+		public long loop(float volume) {
+			return sound.loop(volume);
+		}
+
+		@Override
+		public long loop(float volume, float pitch, float pan) {
+			return sound.loop(volume, pitch, pan);
+		}
+
+		@Override
+		public void stop() {
+			sound.stop();
+		}
+
+		@Override
+		public void pause() {
+			sound.pause();
+		}
+
+		@Override
+		public void resume() {
+			sound.resume();
+		}
+
+		@Override
+		public void stop(long soundId) {
+			sound.stop(soundId);
+		}
+
+		@Override
+		public void pause(long soundId) {
+			sound.pause(soundId);
+		}
+
+		@Override
+		public void resume(long soundId) {
+			sound.resume(soundId);
+		}
+
+		@Override
+		public void setLooping(long soundId, boolean looping) {
+			sound.setLooping(soundId, looping);
+		}
+
+		@Override
+		public void setPitch(long soundId, float pitch) {
+			sound.setPitch(soundId, pitch);
+		}
+
+		@Override
+		public void setVolume(long soundId, float volume) {
+			sound.setVolume(soundId, volume);
+		}
+
+		@Override
+		public void setPan(long soundId, float pan, float volume) {
+			sound.setPan(soundId, pan, volume);
+		}
+
+		@Override
+		public void dispose() {
+			dispatcher.disposeSound(sound);
+		}
+	}
+
+	// A backend Music whose dispose() goes to the worker; the dispatcher's worker makes every other call.
+	// A completion listener is called on the worker too
+	static final class WorkerMusic implements Music {
+		final Music music;
+		private final ThreadedAudioDispatcher dispatcher;
+
+		WorkerMusic(Music music, ThreadedAudioDispatcher dispatcher) {
+			this.music = music;
+			this.dispatcher = dispatcher;
+		}
+
+		@Override
+		public void play() {
+			music.play();
+		}
+
+		@Override
+		public void pause() {
+			music.pause();
+		}
+
+		@Override
+		public void stop() {
+			music.stop();
+		}
+
+		@Override
+		public boolean isPlaying() {
+			return music.isPlaying();
+		}
+
+		@Override
+		public void setLooping(boolean isLooping) {
+			music.setLooping(isLooping);
+		}
+
+		@Override
+		public boolean isLooping() {
+			return music.isLooping();
+		}
+
+		@Override
+		public void setVolume(float volume) {
+			music.setVolume(volume);
+		}
+
+		@Override
+		public float getVolume() {
+			return music.getVolume();
+		}
+
+		@Override
+		public void setPan(float pan, float volume) {
+			music.setPan(pan, volume);
+		}
+
+		@Override
+		public void setPosition(float position) {
+			music.setPosition(position);
+		}
+
+		@Override
+		public float getPosition() {
+			return music.getPosition();
+		}
+
+		@Override
+		public void setOnCompletionListener(OnCompletionListener listener) {
+			music.setOnCompletionListener(listener);
+		}
+
+		@Override
+		public void dispose() {
+			dispatcher.disposeMusic(this);
+		}
+	}
+}
@@ -0,0 +1,426 @@
+package com.hat_quest.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Shared leaderboard over plain HTTP/1.1, served by one non-blocking selector thread that owns the ScoreIndex,
+// so requests need no locks. Keep-alive and pipelined requests are answered in order; a connection is not read
+// again until its last response is written, so a client that stops reading only holds itself up.
+//
+// POST /scores               body: one "<player> <score>" line per run, at most MAX_BATCH lines
+//                            reply: the player count, then the player's rank after each run, one per line
+// GET  /top?from=R&count=N   one "rank player score" line per entry, at most MAX_RANGE of them
+// GET  /rank?player=P        "rank score", or 404 for a player with no score
+// GET  /stats                player count, runs submitted and requests served
+// Player names are 1 to 32 letters, digits, '-' or '_'. Replies are text/plain and allow any origin, so the
+// browser build can submit too. JVM only; nothing in the game depends on this module.
+//
+// Usage: LeaderboardServer [--port N]
+public class LeaderboardServer implements Closeable {
+    public static final int DEFAULT_PORT = 8787;
+    public static final int MAX_BATCH = 256; // Runs accepted in one request
+    public static final int MAX_RANGE = 100; // Entries returned by one /top request
+
+    private static final int MAX_REQUEST_BYTES = 64 * 1024;
+    private static final int MAX_NAME_LENGTH = 32;
+
+    private final ScoreIndex index = new ScoreIndex();
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final StringBuilder body = new StringBuilder(4096); // Reply being built
+    private final String[] batchPlayers = new String[MAX_BATCH]; // A batch is checked whole before any of it applies
+    private final int[] batchScores = new int[MAX_BATCH];
+    private Thread thread;
+    private volatile boolean running;
+    // Written only by the selector thread, read by anyone
+    private volatile long submissions;
+    private volatile long requests;
+
+    // Bind to the port, or to any free one when it is 0
+    public LeaderboardServer(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (int a = 0; a < args.length; a++) {
+            if ("--port".equals(args[a]) && a + 1 < args.length) {
+                port = Integer.parseInt(args[++a]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[a]);
+            }
+        }
+        LeaderboardServer server = new LeaderboardServer(port);
+        System.out.println("Leaderboard listening on port " + server.getPort());
+        server.run();
+    }
+
+    // Serve on a daemon thread, for running in-process next to the game, a test or the load generator
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "leaderboard");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Serve on the calling thread until close()
+    public void run() {
+        running = true;
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read(key);
+                        } else if (key.isWritable()) {
+                            Connection connection = (Connection) key.attachment();
+                            if (write(key, connection)) {
+                                serve(key, connection); // Requests that arrived while the reply was going out
+                            }
+                        }
+                    } catch (IOException e) {
+                        closeConnection(key); // The client went away mid-request
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Log the exception and stop serving
+            System.err.println("Error during leaderboard serving: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (!connection.in.hasRemaining()) {
+            if (connection.in.capacity() >= MAX_REQUEST_BYTES) {
+                closeConnection(key); // Unreachable in practice: nextRequest answers 413 before the buffer fills
+                return;
+            }
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(connection.in.capacity() * 2, MAX_REQUEST_BYTES));
+            connection.in.flip();
+            larger.put(connection.in);
+            connection.in = larger;
+        }
+        if (connection.channel.read(connection.in) < 0) {
+            closeConnection(key);
+            return;
+        }
+        serve(key, connection);
+    }
+
+    // Answer complete requests in the input one at a time, stopping while a reply is still being written
+    private void serve(SelectionKey key, Connection connection) throws IOException {
+        while (connection.out == null && nextRequest(connection)) {
+            if (!write(key, connection)) {
+                return;
+            }
+        }
+        key.interestOps(connection.out != null ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    // Write what the socket takes of the reply; false when the connection was closed after its last reply
+    private boolean write(SelectionKey key, Connection connection) throws IOException {
+        connection.channel.write(connection.out);
+        if (connection.out.hasRemaining()) {
+            return true; // The rest goes when the socket is writable again
+        }
+        connection.out = null;
+        if (connection.closeAfterWrite) {
+            closeConnection(key);
+            return false;
+        }
+        return true;
+    }
+
+    // Parse and answer the first request in the input if all of it has arrived
+    private boolean nextRequest(Connection connection) {
+        byte[] data = connection.in.array();
+        int length = connection.in.position();
+        int headerEnd = headerEnd(data, length);
+        if (headerEnd < 0) {
+            if (length >= MAX_REQUEST_BYTES) {
+                reply(connection, error(413, "Request headers too large"), false);
+                return true;
+            }
+            return false;
+        }
+        String head = new String(data, 0, headerEnd, StandardCharsets.US_ASCII);
+        String[] lines = head.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        int contentLength = 0;
+        boolean keepAlive = requestLine.length == 3 && requestLine[2].equals("HTTP/1.1");
+        try {
+            for (int l = 1; l < lines.length; l++) {
+                int colon = lines[l].indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = lines[l].substring(0, colon).trim();
+                String value = lines[l].substring(colon + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length")) {
+                    contentLength = Integer.parseInt(value);
+                } else if (name.equalsIgnoreCase("Connection")) {
+                    keepAlive = value.equalsIgnoreCase("keep-alive")
+                        || (keepAlive && !value.equalsIgnoreCase("close"));
+                }
+            }
+        } catch (NumberFormatException e) {
+            reply(connection, error(400, "Bad Content-Length"), false);
+            return true;
+        }
+        if (requestLine.length != 3 || contentLength < 0) {
+            reply(connection, error(400, "Bad request line"), false);
+            return true;
+        }
+        if (headerEnd + contentLength > MAX_REQUEST_BYTES) {
+            reply(connection, error(413, "Request larger than " + MAX_REQUEST_BYTES + " bytes"), false);
+            return true;
+        }
+        if (length < headerEnd + contentLength) {
+            return false; // Body still on its way
+        }
+        String requestBody = new String(data, headerEnd, contentLength, StandardCharsets.US_ASCII);
+
+        // Drop the request from the input, keeping any pipelined one behind it
+        int consumed = headerEnd + contentLength;
+        System.arraycopy(data, consumed, data, 0, length - consumed);
+        connection.in.position(length - consumed);
+
+        requests++;
+        reply(connection, handle(requestLine[0], requestLine[1], requestBody), keepAlive);
+        return true;
+    }
+
+    // Build the reply body for a request and return its status
+    private int handle(String method, String target, String requestBody) {
+        body.setLength(0);
+        int question = target.indexOf('?');
+        String path = question >= 0 ? target.substring(0, question) : target;
+        String query = question >= 0 ? target.substring(question + 1) : "";
+        switch (path) {
+            case "/scores":
+                return method.equals("POST") ? submit(requestBody) : error(405, "Use POST");
+            case "/top":
+                if (!method.equals("GET")) {
+                    return error(405, "Use GET");
+                }
+                try {
+                    int from = Integer.parseInt(queryParameter(query, "from", "1"));
+                    int count = Math.min(Integer.parseInt(queryParameter(query, "count", "10")), MAX_RANGE);
+                    index.appendRange(from, count, body);
+                    return 200;
+                } catch (NumberFormatException e) {
+                    return error(400, "Bad from or count");
+                }
+            case "/rank": {
+                if (!method.equals("GET")) {
+                    return error(405, "Use GET");
+                }
+                String player = queryParameter(query, "player", "");
+                int rank = index.getRank(player);
+                if (rank == 0) {
+                    return error(404, "No score for " + player);
+                }
+                body.append(rank).append(' ').append(index.getScore(player)).append('\n');
+                return 200;
+            }
+            case "/stats":
+                body.append("players ").append(index.getPlayerCount()).append('\n');
+                body.append("submissions ").append(submissions).append('\n');
+                body.append("requests ").append(requests).append('\n');
+                return 200;
+            default:
+                return error(404, "Unknown path " + path);
+        }
+    }
+
+    // Check every line of the batch, then apply them all; a rejected batch changes nothing
+    private int submit(String requestBody) {
+        int count = 0;
+        int start = 0;
+        while (start < requestBody.length()) {
+            int end = requestBody.indexOf('\n', start);
+            if (end < 0) {
+                end = requestBody.length();
+            }
+            String line = requestBody.substring(start, end).trim();
+            start = end + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (count == MAX_BATCH) {
+                return error(413, "At most " + MAX_BATCH + " runs per request");
+            }
+            int space = line.indexOf(' ');
+            int score = -1;
+            if (space > 0) {
+                try {
+                    score = Integer.parseInt(line.substring(space + 1).trim());
+                } catch (NumberFormatException e) {
+                    score = -1;
+                }
+            }
+            if (score < 0 || !validName(line, space)) {
+                return error(400, "Expected '<player> <score>' but got '" + line + "'");
+            }
+            batchPlayers[count] = line.substring(0, space);
+            batchScores[count] = score;
+            count++;
+        }
+        body.append(0).append('\n'); // Player count, filled in once the batch is applied
+        for (int r = 0; r < count; r++) {
+            body.append(index.submit(batchPlayers[r], batchScores[r])).append('\n');
+            batchPlayers[r] = null;
+        }
+        body.replace(0, 1, Integer.toString(index.getPlayerCount()));
+        submissions += count;
+        return 200;
+    }
+
+    private int error(int status, String message) {
+        body.setLength(0);
+        body.append(message).append('\n');
+        return status;
+    }
+
+    private void reply(Connection connection, int status, boolean keepAlive) {
+        StringBuilder response = new StringBuilder(128 + body.length());
+        response.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+        response.append("Content-Type: text/plain\r\n");
+        response.append("Content-Length: ").append(body.length()).append("\r\n");
+        response.append("Access-Control-Allow-Origin: *\r\n");
+        if (!keepAlive) {
+            response.append("Connection: close\r\n");
+        }
+        response.append("\r\n").append(body);
+        connection.out = ByteBuffer.wrap(response.toString().getBytes(StandardCharsets.US_ASCII));
+        connection.closeAfterWrite = !keepAlive;
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 413: return "Payload Too Large";
+            default: return "Error";
+        }
+    }
+
+    // Offset just past the blank line ending the headers, or -1 when it has not arrived
+    private static int headerEnd(byte[] data, int length) {
+        for (int i = 3; i < length; i++) {
+            if (data[i] == '\n' && data[i - 1] == '\r' && data[i - 2] == '\n' && data[i - 3] == '\r') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String queryParameter(String query, String name, String fallback) {
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return fallback;
+    }
+
+    // The first nameLength characters of text make a valid player name
+    private static boolean validName(String text, int nameLength) {
+        if (nameLength < 1 || nameLength > MAX_NAME_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            char c = text.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Nothing more to do with a connection that failed to close
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public long getSubmissions() {
+        return submissions;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    // Stop serving and close every connection
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        ByteBuffer in = ByteBuffer.allocate(4096); // Bytes received and not yet answered, from 0 to position
+        ByteBuffer out; // Reply still being written, null when there is none
+        boolean closeAfterWrite;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.hat_quest.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+// Floods a leaderboard server with batched score submissions over several keep-alive connections and reports
+// throughput and latency. Without --host it first starts a server in this process on a free port.
+//
+// Usage: LoadGenerator [--host H] [--port N] [--clients N] [--seconds S] [--batch N] [--players N] [--seed S]
+// Example: LoadGenerator --clients 16 --batch 32 --players 1000000
+public class LoadGenerator {
+    private static final int LATENCY_BUCKETS = 10000; // 10 microseconds each, so up to 100 ms; slower goes in the last
+
+    public static void main(String[] args) throws Exception {
+        String host = null;
+        int port = LeaderboardServer.DEFAULT_PORT;
+        int clients = 8;
+        float seconds = 10;
+        int batch = 16;
+        int players = 100000;
+        long seed = 1;
+        for (int a = 0; a < args.length; a++) {
+            String arg = args[a];
+            if (a + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++a];
+            switch (arg) {
+                case "--host": host = value; break;
+                case "--port": port = Integer.parseInt(value); break;
+                case "--clients": clients = Integer.parseInt(value); break;
+                case "--seconds": seconds = Float.parseFloat(value); break;
+                case "--batch": batch = Math.min(Integer.parseInt(value), LeaderboardServer.MAX_BATCH); break;
+                case "--players": players = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        LeaderboardServer server = null;
+        if (host == null) {
+            server = new LeaderboardServer(0);
+            server.start();
+            host = "127.0.0.1";
+            port = server.getPort();
+            System.out.println("Started an in-process leaderboard on port " + port);
+        }
+        System.out.println("Submitting batches of " + batch + " from " + clients + " clients for " + seconds
+            + "s over " + players + " players");
+
+        Client[] workers = new Client[clients];
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        for (int c = 0; c < clients; c++) {
+            workers[c] = new Client(host, port, batch, players, seed + c, end);
+            workers[c].start();
+        }
+        long requests = 0;
+        long[] latency = new long[LATENCY_BUCKETS];
+        long failures = 0;
+        for (Client worker : workers) {
+            worker.join();
+            requests += worker.requests;
+            failures += worker.failures;
+            for (int b = 0; b < LATENCY_BUCKETS; b++) {
+                latency[b] += worker.latency[b];
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%d requests, %d runs in %.1fs: %.0f runs/s, %.0f requests/s",
+            requests, requests * batch, seconds, requests * batch / seconds, requests / seconds));
+        System.out.println(String.format(Locale.ROOT, "Latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms",
+            percentile(latency, requests, 0.5), percentile(latency, requests, 0.99),
+            percentile(latency, requests, 0.999)));
+        if (failures > 0) {
+            System.out.println(failures + " requests failed");
+        }
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port));
+            System.out.print(exchange(socket, "GET /stats HTTP/1.1\r\nHost: " + host + "\r\n\r\n", new byte[4096]));
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    // Upper edge in milliseconds of the bucket holding the given fraction of requests
+    private static double percentile(long[] latency, long total, double fraction) {
+        long wanted = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int b = 0; b < LATENCY_BUCKETS; b++) {
+            seen += latency[b];
+            if (seen >= wanted) {
+                return (b + 1) * 0.01;
+            }
+        }
+        return LATENCY_BUCKETS * 0.01;
+    }
+
+    // Send one request and return the reply body, or null when the status is not 200
+    private static String exchange(Socket socket, String request, byte[] buffer) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        InputStream in = socket.getInputStream();
+        int length = 0;
+        int headerEnd = -1;
+        int contentLength = -1;
+        boolean ok = false;
+        while (contentLength < 0 || length < headerEnd + contentLength) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                throw new IOException("Connection closed mid-reply");
+            }
+            length += read;
+            if (headerEnd < 0) {
+                String received = new String(buffer, 0, length, StandardCharsets.US_ASCII);
+                int blank = received.indexOf("\r\n\r\n");
+                if (blank >= 0) {
+                    headerEnd = blank + 4;
+                    int header = received.indexOf("Content-Length: ");
+                    contentLength = Integer.parseInt(received.substring(header + 16, received.indexOf('\r', header)));
+                    ok = received.startsWith("HTTP/1.1 200");
+                }
+            }
+        }
+        return ok ? new String(buffer, headerEnd, contentLength, StandardCharsets.US_ASCII) : null;
+    }
+
+    // One keep-alive connection sending a batch and waiting for its reply, over and over
+    private static final class Client extends Thread {
+        private final String host;
+        private final int port;
+        private final int batch;
+        private final int players;
+        private final Random random;
+        private final long end;
+        final long[] latency = new long[LATENCY_BUCKETS];
+        long requests;
+        long failures;
+
+        Client(String host, int port, int batch, int players, long seed, long end) {
+            super("load-" + seed);
+            this.host = host;
+            this.port = port;
+            this.batch = batch;
+            this.players = players;
+            this.random = new Random(seed);
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            byte[] buffer = new byte[64 * 1024];
+            StringBuilder body = new StringBuilder(batch * 24);
+            StringBuilder request = new StringBuilder(256 + batch * 24);
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.connect(new InetSocketAddress(host, port));
+                while (System.nanoTime() < end) {
+                    body.setLength(0);
+                    for (int r = 0; r < batch; r++) {
+                        body.append('p').append(random.nextInt(players)).append(' ').append(random.nextInt(1000)).append('\n');
+                    }
+                    request.setLength(0);
+                    request.append("POST /scores HTTP/1.1\r\nHost: ").append(host).append("\r\n");
+                    request.append("Content-Type: text/plain\r\nContent-Length: ").append(body.length()).append("\r\n\r\n");
+                    request.append(body);
+                    long start = System.nanoTime();
+                    if (exchange(socket, request.toString(), buffer) == null) {
+                        failures++;
+                        continue;
+                    }
+                    int bucket = (int) ((System.nanoTime() - start) / 10000);
+                    latency[Math.min(bucket, LATENCY_BUCKETS - 1)]++;
+                    requests++;
+                }
+            } catch (IOException e) {
+                // Log the exception and stop this client
+                System.err.println("Error during load generation: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
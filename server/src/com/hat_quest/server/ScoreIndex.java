@@ -0,0 +1,182 @@
+package com.hat_quest.server;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Every player's best score in rank order. An indexable skip list holds the entries highest score first, an older
+// score ahead of an equal newer one; each link also stores how many entries it steps over, so the rank of an entry
+// and the entry at a rank are found in O(log n), the same as an insert. A map finds a player's entry by name.
+// Not thread-safe: the server only touches it from its selector thread.
+public class ScoreIndex {
+    private static final int MAX_LEVEL = 32; // Enough for billions of entries at one level in four
+
+    private static final class Node {
+        final String player;
+        final int score;
+        final long order; // Submission number, so equal scores rank by who got there first
+        final Node[] next;
+        final int[] span; // Entries each link steps over, counting the one it lands on
+
+        Node(String player, int score, long order, int level) {
+            this.player = player;
+            this.score = score;
+            this.order = order;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, 0, 0, MAX_LEVEL);
+    private final Map<String, Node> players = new HashMap<>();
+    private final Node[] update = new Node[MAX_LEVEL]; // Last node before the change on each level
+    private final int[] updateRank = new int[MAX_LEVEL];
+    private int level = 1;
+    private int size;
+    private long nextOrder;
+    private long random = 0x9e3779b97f4a7c15L; // xorshift state for node levels
+
+    // Record a score and return the player's rank, 1 being the best. Only a new best changes anything, so sending
+    // the same score twice, as a client retrying a lost response does, is harmless.
+    public int submit(String player, int score) {
+        Node node = players.get(player);
+        if (node != null) {
+            if (score <= node.score) {
+                return rank(node);
+            }
+            remove(node);
+        }
+        return insert(player, score);
+    }
+
+    private int insert(String player, int score) {
+        long order = nextOrder++;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            updateRank[i] = i == level - 1 ? 0 : updateRank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, order)) {
+                updateRank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                updateRank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node node = new Node(player, score, order, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (updateRank[0] - updateRank[i]);
+            update[i].span[i] = updateRank[0] - updateRank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++; // Higher links now step over the new node too
+        }
+        size++;
+        players.put(player, node);
+        return updateRank[0] + 1;
+    }
+
+    private void remove(Node node) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], node.score, node.order)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        players.remove(node.player);
+    }
+
+    private int rank(Node node) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == node || before(x.next[i], node.score, node.order))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return rank;
+    }
+
+    // Entry at a rank from 1 to getPlayerCount()
+    private Node byRank(int rank) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private static boolean before(Node node, int score, long order) {
+        return node.score > score || (node.score == score && node.order < order);
+    }
+
+    // One level in four is promoted, taking two bits of the random word per level
+    private int randomLevel() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        long bits = random;
+        int nodeLevel = 1;
+        while ((bits & 3) == 0 && nodeLevel < MAX_LEVEL) {
+            nodeLevel++;
+            bits >>>= 2;
+        }
+        return nodeLevel;
+    }
+
+    // The player's rank, or 0 when they have no score
+    public int getRank(String player) {
+        Node node = players.get(player);
+        return node != null ? rank(node) : 0;
+    }
+
+    // The player's best score, or -1 when they have none
+    public int getScore(String player) {
+        Node node = players.get(player);
+        return node != null ? node.score : -1;
+    }
+
+    public int getPlayerCount() {
+        return size;
+    }
+
+    // Write up to count entries from the given rank on, one "rank player score" line each
+    public void appendRange(int fromRank, int count, StringBuilder out) {
+        Node node = fromRank >= 1 ? byRank(fromRank) : null;
+        for (int rank = fromRank; node != null && rank < fromRank + count; rank++) {
+            out.append(rank).append(' ').append(node.player).append(' ').append(node.score).append('\n');
+            node = node.next[0];
+        }
+    }
+}
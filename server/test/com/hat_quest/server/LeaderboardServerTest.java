@@ -0,0 +1,211 @@
+package com.hat_quest.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+// Checks the skip list against a sorted list rebuilt from scratch, then the same ranking over HTTP against an
+// in-process server on a free port
+public class LeaderboardServerTest {
+    private LeaderboardServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new LeaderboardServer(0);
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test(timeout = 60_000)
+    public void indexMatchesSortedModel() {
+        ScoreIndex index = new ScoreIndex();
+        Model model = new Model();
+        Random random = new Random(42);
+        for (int s = 1; s <= 200_000; s++) {
+            // Few players and a narrow score range, so most runs are not a new best and ties are common
+            String player = "p" + random.nextInt(2_000);
+            int score = random.nextInt(5_000);
+            int expected = model.submit(player, score);
+            assertEquals("rank returned for run " + s, expected, index.submit(player, score));
+            if (s % 10_000 == 0) {
+                model.check(index, random);
+            }
+        }
+        model.check(index, random);
+    }
+
+    @Test(timeout = 60_000)
+    public void roundTripMatchesModel() throws IOException {
+        Model model = new Model();
+        Random random = new Random(7);
+        for (int b = 0; b < 40; b++) {
+            StringBuilder batch = new StringBuilder();
+            StringBuilder expected = new StringBuilder();
+            int runs = 1 + random.nextInt(LeaderboardServer.MAX_BATCH);
+            for (int r = 0; r < runs; r++) {
+                String player = "player_" + random.nextInt(300);
+                int score = random.nextInt(1_000);
+                batch.append(player).append(' ').append(score).append('\n');
+                expected.append(model.submit(player, score)).append('\n');
+            }
+            expected.insert(0, model.size() + "\n");
+            assertEquals(expected.toString(), request("POST", "/scores", batch.toString(), 200));
+        }
+
+        List<Entry> ranking = model.sorted();
+        for (int from = 1; from <= ranking.size() + 1; from += 37) {
+            StringBuilder expected = new StringBuilder();
+            for (int rank = from; rank < from + 50 && rank <= ranking.size(); rank++) {
+                Entry entry = ranking.get(rank - 1);
+                expected.append(rank).append(' ').append(entry.player).append(' ').append(entry.score).append('\n');
+            }
+            assertEquals(expected.toString(), request("GET", "/top?from=" + from + "&count=50", null, 200));
+        }
+        assertEquals(LeaderboardServer.MAX_RANGE, request("GET", "/top?from=1&count=1000", null, 200).split("\n").length);
+        for (int rank = 1; rank <= ranking.size(); rank += 11) {
+            Entry entry = ranking.get(rank - 1);
+            assertEquals(rank + " " + entry.score + "\n", request("GET", "/rank?player=" + entry.player, null, 200));
+        }
+        request("GET", "/rank?player=nobody", null, 404);
+    }
+
+    @Test(timeout = 60_000)
+    public void rejectedBatchChangesNothing() throws IOException {
+        assertEquals("1\n1\n", request("POST", "/scores", "alice 10\n", 200));
+        request("POST", "/scores", "bob 20\nnot a run\n", 400);
+        request("POST", "/scores", "bob 20\nalice -5\n", 400);
+        StringBuilder tooMany = new StringBuilder();
+        for (int r = 0; r <= LeaderboardServer.MAX_BATCH; r++) {
+            tooMany.append("bob ").append(r).append('\n');
+        }
+        request("POST", "/scores", tooMany.toString(), 413);
+        request("GET", "/scores", null, 405);
+        request("GET", "/top?from=x", null, 400);
+        request("GET", "/rank?player=bob", null, 404);
+        assertEquals("1 alice 10\n", request("GET", "/top", null, 200));
+        assertEquals(1, server.getSubmissions());
+    }
+
+    // Send one request and return the reply body, failing unless the status is the expected one
+    private String request(String method, String target, String requestBody, int status) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + target);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (requestBody != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(requestBody.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        assertEquals(method + " " + target, status, connection.getResponseCode());
+        InputStream in = status == 200 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            reply.write(buffer, 0, n);
+        }
+        in.close();
+        return new String(reply.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static final class Entry {
+        final String player;
+        int score;
+        long order;
+
+        Entry(String player) {
+            this.player = player;
+        }
+    }
+
+    // Best scores in a map, ranked by comparing against every other entry
+    private static final class Model {
+        private final Map<String, Entry> best = new HashMap<>();
+        private long nextOrder;
+
+        int submit(String player, int score) {
+            Entry entry = best.get(player);
+            if (entry == null) {
+                entry = new Entry(player);
+                entry.score = -1;
+                best.put(player, entry);
+            }
+            if (score > entry.score) {
+                entry.score = score;
+                entry.order = nextOrder++;
+            }
+            int rank = 1;
+            for (Entry other : best.values()) {
+                if (other.score > entry.score || other.score == entry.score && other.order < entry.order) {
+                    rank++;
+                }
+            }
+            return rank;
+        }
+
+        int size() {
+            return best.size();
+        }
+
+        List<Entry> sorted() {
+            List<Entry> ranking = new ArrayList<>(best.values());
+            Collections.sort(ranking, (a, b) -> a.score != b.score
+                ? Integer.compare(b.score, a.score) : Long.compare(a.order, b.order));
+            return ranking;
+        }
+
+        // Every rank and score, the whole ranking as one range and a few random ranges past either end
+        void check(ScoreIndex index, Random random) {
+            List<Entry> ranking = sorted();
+            assertEquals(ranking.size(), index.getPlayerCount());
+            StringBuilder expected = new StringBuilder();
+            for (int rank = 1; rank <= ranking.size(); rank++) {
+                Entry entry = ranking.get(rank - 1);
+                assertEquals(entry.player, rank, index.getRank(entry.player));
+                assertEquals(entry.player, entry.score, index.getScore(entry.player));
+                expected.append(rank).append(' ').append(entry.player).append(' ').append(entry.score).append('\n');
+            }
+            StringBuilder actual = new StringBuilder();
+            index.appendRange(1, ranking.size() + 10, actual);
+            assertEquals(expected.toString(), actual.toString());
+            for (int r = 0; r < 20; r++) {
+                int from = random.nextInt(ranking.size() + 20) - 5;
+                int count = random.nextInt(150);
+                int first = Math.max(from, 1);
+                int last = Math.min(from + count - 1, ranking.size());
+                StringBuilder range = new StringBuilder();
+                if (from >= 1) {
+                    for (int rank = first; rank <= last; rank++) {
+                        Entry entry = ranking.get(rank - 1);
+                        range.append(rank).append(' ').append(entry.player).append(' ').append(entry.score).append('\n');
+                    }
+                }
+                actual.setLength(0);
+                index.appendRange(from, count, actual);
+                assertEquals("range from " + from + " count " + count, range.toString(), actual.toString());
+            }
+            assertEquals(0, index.getRank("nobody"));
+            assertEquals(-1, index.getScore("nobody"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hat_quest.sim;
+
+// Bucket physics: horizontal movement, double jump and gravity
+public class Bucket {
+    private final SimConfig config;
+    private float x, y; // Bottom-left corner
+    private float prevX, prevY; // Position at the start of the current tick, for render interpolation
+    private final float width, height;
+    private float jumpVelocity;
+    private int jumpCount;
+
+    public Bucket(SimConfig config) {
+        this.config = config;
+        this.width = config.bucketSize;
+        this.height = config.bucketSize;
+        resetPosition();
+    }
+
+    // Remember the current position before the tick moves the bucket
+    public void savePrevious() {
+        prevX = x;
+        prevY = y;
+    }
+
+    // Apply player input for this step
+    public void handleInput(int input, float delta) {
+        if ((input & InputMask.LEFT) != 0)
+            x -= config.bucketSpeed * delta;
+        if ((input & InputMask.RIGHT) != 0)
+            x += config.bucketSpeed * delta;
+        if ((input & InputMask.JUMP) != 0 && jumpCount < config.maxJumps) {
+            jumpVelocity = config.jumpHeight;
+            jumpCount++;
+        }
+    }
+
+    // Update the bucket's position and state
+    public void update(float delta) {
+        y += jumpVelocity * delta;
+        jumpVelocity -= config.gravity * delta;
+        if (y < 0) {
+            y = 0;
+            jumpVelocity = 0;
+            jumpCount = 0;
+        }
+        float maxX = config.worldWidth - width;
+        if (x < 0)
+            x = 0;
+        if (x > maxX)
+            x = maxX;
+    }
+
+    // Reset the bucket's position
+    public void resetPosition() {
+        x = config.bucketStartX;
+        y = config.bucketStartY;
+        jumpVelocity = 0;
+        jumpCount = 0;
+        savePrevious();
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    // Position blended between the previous and current tick, alpha in [0, 1]
+    public float getX(float alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    public float getY(float alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    // True when the given box overlaps the bucket
+    public boolean overlaps(float boxX, float boxY, float boxWidth, float boxHeight) {
+        return boxX < x + width && boxX + boxWidth > x && boxY < y + height && boxY + boxHeight > y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+}
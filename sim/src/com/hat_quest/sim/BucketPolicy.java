@@ -0,0 +1,7 @@
+package com.hat_quest.sim;
+
+// Scripted player for headless runs: looks at the world and picks the controls for the next tick
+public interface BucketPolicy {
+    // InputMask bits to step the next tick with
+    int nextInput(World world);
+}
@@ -0,0 +1,59 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+
+// Uniform grid broadphase over the playfield. Catchers are few and drops are many, so the catchers are binned:
+// each cell holds a bit mask of the catchers a drop whose bottom-left corner lies in that cell could touch.
+// A drop then needs one table lookup, and only the catchers in its mask reach the exact overlap test.
+public class CatcherGrid {
+    public static final int MAX_CATCHERS = 64; // One bit per catcher in a long mask
+
+    private final float inverseCellSize;
+    private final float originY; // Lowest bottom edge a live drop can have
+    private final int columns;
+    private final int rows;
+    private final long[] masks; // Catcher bits per cell, row major
+
+    public CatcherGrid(float worldWidth, float worldHeight, float dropSize, float cellSize) {
+        this.inverseCellSize = 1 / cellSize;
+        this.originY = -dropSize;
+        this.columns = (int) Math.ceil(worldWidth / cellSize) + 1;
+        this.rows = (int) Math.ceil((worldHeight - originY) / cellSize) + 1;
+        this.masks = new long[columns * rows];
+    }
+
+    private int column(float x) {
+        float c = x * inverseCellSize;
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : (int) c);
+    }
+
+    private int row(float y) {
+        float r = (y - originY) * inverseCellSize;
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : (int) r);
+    }
+
+    // Rebuild the masks for the current catcher positions
+    public void build(Bucket[] catchers, int catcherCount, float dropSize) {
+        Arrays.fill(masks, 0);
+        for (int c = 0; c < catcherCount; c++) {
+            Bucket catcher = catchers[c];
+            // A drop overlaps when its corner lies within the catcher box widened by one drop size left and below
+            int firstColumn = column(catcher.getX() - dropSize);
+            int lastColumn = column(catcher.getX() + catcher.getWidth());
+            int firstRow = row(catcher.getY() - dropSize);
+            int lastRow = row(catcher.getY() + catcher.getHeight());
+            long bit = 1L << c;
+            for (int r = firstRow; r <= lastRow; r++) {
+                int rowStart = r * columns;
+                for (int col = firstColumn; col <= lastColumn; col++) {
+                    masks[rowStart + col] |= bit;
+                }
+            }
+        }
+    }
+
+    // Catchers a drop with its bottom-left corner at (x, y) could overlap
+    public long candidates(float x, float y) {
+        return masks[row(y) * columns + column(x)];
+    }
+}
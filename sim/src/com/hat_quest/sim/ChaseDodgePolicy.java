@@ -0,0 +1,71 @@
+package com.hat_quest.sim;
+
+// Moves under the lowest raindrop it can still reach, steps aside from enemy drops about to land on it,
+// raises the shield when it can't get clear and grabs bonus drops when a life is missing
+public class ChaseDodgePolicy implements BucketPolicy {
+    private static final float DANGER_HEIGHT = 160; // Enemy drops closer than this above the bucket are threats
+    private static final float DEAD_ZONE = 4; // Close enough to the target column to stop moving
+
+    @Override
+    public int nextInput(World world) {
+        Bucket bucket = world.getBucket();
+        DropStore drops = world.getDrops();
+        SimConfig config = world.getConfig();
+        float size = drops.getDropSize();
+        float left = bucket.getX();
+        float right = left + bucket.getWidth();
+        float top = bucket.getY() + bucket.getHeight();
+
+        float targetX = Float.NaN;
+        float targetY = Float.MAX_VALUE;
+        float threatX = Float.NaN;
+        float threatY = Float.MAX_VALUE;
+        for (int i = 0, n = drops.size(); i < n; i++) {
+            float x = drops.getX(i);
+            float y = drops.getY(i);
+            byte type = drops.getType(i);
+            if (type == DropStore.ENEMY) {
+                // Threat when it overlaps the bucket's column and lands soon
+                if (x + size > left && x < right && y - top < DANGER_HEIGHT && y < threatY) {
+                    threatX = x;
+                    threatY = y;
+                }
+                continue;
+            }
+            if (type == DropStore.BONUS && world.getLives() >= config.maxLives) {
+                continue;
+            }
+            // Reachable if the bucket can cover the horizontal gap before the drop falls past it
+            float fallTime = Math.max(0, y - bucket.getY()) / drops.getVelocity(i);
+            float gap = Math.abs(x + size / 2 - (left + right) / 2);
+            if (gap > config.bucketSpeed * fallTime + bucket.getWidth() / 2) {
+                continue;
+            }
+            if (y < targetY) {
+                targetX = x + size / 2;
+                targetY = y;
+            }
+        }
+
+        int input = 0;
+        if (!Float.isNaN(threatX)) {
+            // Step out towards the side with more room from the threat
+            float threatCenter = threatX + size / 2;
+            boolean goLeft = threatCenter > (left + right) / 2 ? left > bucket.getWidth() : right > config.worldWidth - bucket.getWidth();
+            input |= goLeft ? InputMask.LEFT : InputMask.RIGHT;
+            if (threatY - top < DANGER_HEIGHT / 2 && world.getShield().canActivate()) {
+                input |= InputMask.SHIELD;
+            }
+            return input;
+        }
+        if (!Float.isNaN(targetX)) {
+            float center = (left + right) / 2;
+            if (targetX < center - DEAD_ZONE) {
+                input |= InputMask.LEFT;
+            } else if (targetX > center + DEAD_ZONE) {
+                input |= InputMask.RIGHT;
+            }
+        }
+        return input;
+    }
+}
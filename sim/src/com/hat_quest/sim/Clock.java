@@ -0,0 +1,6 @@
+package com.hat_quest.sim;
+
+// Time source for the simulation, injected so headless runs don't depend on the wall clock
+public interface Clock {
+    long nanoTime();
+}
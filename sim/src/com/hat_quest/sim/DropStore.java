@@ -0,0 +1,366 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+
+// Structure-of-arrays store holding every falling drop (rain, enemy and bonus) in parallel primitive arrays
+public class DropStore {
+    public static final byte RAIN = 0; // Regular raindrop, scores a point
+    public static final byte ENEMY = 1; // Enemy drop, costs a life
+    public static final byte BONUS = 2; // Bonus drop, restores a life
+    public static final int TYPE_COUNT = 3;
+
+    // Callback fired when a catcher catches a drop, and optionally when one falls off the bottom uncaught
+    public interface CatchListener {
+        void onDropCaught(byte type, float x, float y, int catcher);
+
+        default void onDropMissed(byte type, float x) {
+        }
+    }
+
+    // Runs updateSlice for every slice index, possibly on several threads, and returns once all have finished
+    public interface SliceExecutor {
+        int getParallelism(); // Threads the slices are spread over
+
+        void updateSlices(DropStore store, int sliceCount);
+    }
+
+    private final float dropSize; // Width and height of every drop
+    private float[] x; // Left edge of each drop
+    private float[] y; // Bottom edge of each drop
+    private float[] prevY; // Bottom edge at the start of the current tick, for render interpolation
+    private float[] velocity; // Fall speed of each drop in pixels per second
+    private byte[] type; // Type tag of each drop
+    private int size; // Number of live drops, packed at the front of the arrays
+    private final int[] typeCounts = new int[TYPE_COUNT]; // Live drops per type
+
+    // Below this many drop-catcher pairs, testing every drop is cheaper than building the grid
+    private static final int BRUTE_FORCE_LIMIT = 256;
+
+    private final CatcherGrid grid; // Broadphase, so only drops near a catcher reach the exact overlap test
+    private final Bucket[] singleCatcher = new Bucket[1];
+    private int narrowPhaseTests; // Exact overlap tests run during the last update
+
+    // Sliced update for large populations: slices move drops and note removals in parallel,
+    // then the removals are applied serially in the order the serial path would make them
+    private static final int SLICES_PER_THREAD = 4; // Lets threads that finish early pick up more work
+    private static final int MIN_SLICE_SIZE = 4096;
+    private SliceExecutor sliceExecutor; // Null to always update serially
+    private int parallelThreshold; // Live drops needed before the sliced path is used
+    private Slice[] slices = new Slice[0];
+    private float sliceDelta; // Arguments of the sliced update in progress, read by the slice workers
+    private Bucket[] sliceCatchers;
+    private int sliceCatcherCount;
+    private boolean sliceUseGrid;
+
+    public DropStore(int initialCapacity, float dropSize, float worldWidth, float worldHeight) {
+        this.dropSize = dropSize;
+        this.grid = new CatcherGrid(worldWidth, worldHeight, dropSize, dropSize / 2);
+        int capacity = Math.max(16, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        prevY = new float[capacity];
+        velocity = new float[capacity];
+        type = new byte[capacity];
+    }
+
+    // Add a drop and return its index
+    public int spawn(byte dropType, float dropX, float dropY, float dropVelocity) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = dropX;
+        y[i] = dropY;
+        prevY[i] = dropY;
+        velocity[i] = dropVelocity;
+        type[i] = dropType;
+        typeCounts[dropType]++;
+        return i;
+    }
+
+    // Move every drop, despawning the ones that fall below the screen or are caught by the bucket and reporting each
+    public void update(float delta, Bucket bucket, CatchListener listener) {
+        singleCatcher[0] = bucket;
+        update(delta, singleCatcher, 1, listener);
+    }
+
+    // Move every drop, despawning the ones that fall below the screen or are caught by any catcher and reporting each.
+    // Catches and misses are reported in descending drop index order; a drop touching several catchers goes to the first.
+    public void update(float delta, Bucket[] catchers, int catcherCount, CatchListener listener) {
+        narrowPhaseTests = 0;
+        boolean bruteForce = size * catcherCount <= BRUTE_FORCE_LIMIT || catcherCount > CatcherGrid.MAX_CATCHERS;
+        if (sliceExecutor != null && size >= parallelThreshold) {
+            updateSliced(delta, catchers, catcherCount, !bruteForce, listener);
+            return;
+        }
+        if (bruteForce) {
+            updateBruteForce(delta, catchers, catcherCount, listener);
+            return;
+        }
+        grid.build(catchers, catcherCount, dropSize);
+        float extent = dropSize;
+        int tests = 0;
+        // Walk backwards so a swap-removed slot is always filled by an already updated drop
+        for (int i = size - 1; i >= 0; i--) {
+            float lastY = y[i];
+            prevY[i] = lastY;
+            float dropY = lastY - velocity[i] * delta;
+            y[i] = dropY;
+            if (dropY + extent < 0) {
+                byte dropType = type[i];
+                float dropX = x[i];
+                remove(i);
+                listener.onDropMissed(dropType, dropX);
+                continue;
+            }
+            float dropX = x[i];
+            long mask = grid.candidates(dropX, dropY);
+            while (mask != 0) {
+                int c = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                tests++;
+                if (catchers[c].overlaps(dropX, dropY, extent, extent)) {
+                    byte dropType = type[i];
+                    remove(i);
+                    listener.onDropCaught(dropType, dropX, dropY, c);
+                    break;
+                }
+            }
+        }
+        narrowPhaseTests = tests;
+    }
+
+    // Same as update, testing every drop against every catcher; cheaper than the grid for a handful of drops
+    private void updateBruteForce(float delta, Bucket[] catchers, int catcherCount, CatchListener listener) {
+        float extent = dropSize;
+        int tests = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            float lastY = y[i];
+            prevY[i] = lastY;
+            float dropY = lastY - velocity[i] * delta;
+            y[i] = dropY;
+            if (dropY + extent < 0) {
+                byte dropType = type[i];
+                float dropX = x[i];
+                remove(i);
+                listener.onDropMissed(dropType, dropX);
+                continue;
+            }
+            float dropX = x[i];
+            for (int c = 0; c < catcherCount; c++) {
+                tests++;
+                if (catchers[c].overlaps(dropX, dropY, extent, extent)) {
+                    byte dropType = type[i];
+                    remove(i);
+                    listener.onDropCaught(dropType, dropX, dropY, c);
+                    break;
+                }
+            }
+        }
+        narrowPhaseTests = tests;
+    }
+
+    // Use the executor for updates of at least threshold drops, or pass null to stay serial.
+    // The outcome, callback order included, is the same as the serial path's.
+    public void setSliceExecutor(SliceExecutor executor, int threshold) {
+        this.sliceExecutor = executor;
+        this.parallelThreshold = threshold;
+    }
+
+    private void updateSliced(float delta, Bucket[] catchers, int catcherCount, boolean useGrid, CatchListener listener) {
+        int sliceCount = Math.max(1, Math.min(sliceExecutor.getParallelism() * SLICES_PER_THREAD, size / MIN_SLICE_SIZE));
+        if (slices.length < sliceCount) {
+            Slice[] grown = Arrays.copyOf(slices, sliceCount);
+            for (int s = slices.length; s < sliceCount; s++) {
+                grown[s] = new Slice();
+            }
+            slices = grown;
+        }
+        int sliceSize = (size + sliceCount - 1) / sliceCount;
+        for (int s = 0; s < sliceCount; s++) {
+            slices[s].from = Math.min(size, s * sliceSize);
+            slices[s].to = Math.min(size, slices[s].from + sliceSize);
+        }
+        if (useGrid) {
+            grid.build(catchers, catcherCount, dropSize);
+        }
+        sliceDelta = delta;
+        sliceCatchers = catchers;
+        sliceCatcherCount = catcherCount;
+        sliceUseGrid = useGrid;
+        sliceExecutor.updateSlices(this, sliceCount);
+        sliceCatchers = null;
+
+        // Highest slice first and each slice's removals in descending index order: the serial visiting order,
+        // so every swap-remove and callback happens exactly as it would have serially
+        int tests = 0;
+        for (int s = sliceCount - 1; s >= 0; s--) {
+            Slice slice = slices[s];
+            tests += slice.tests;
+            for (int k = 0; k < slice.removedCount; k++) {
+                int i = slice.removed[k];
+                int c = slice.caughtBy[k];
+                if (c < 0) {
+                    byte dropType = type[i];
+                    float dropX = x[i];
+                    remove(i);
+                    listener.onDropMissed(dropType, dropX);
+                } else {
+                    byte dropType = type[i];
+                    float dropX = x[i];
+                    float dropY = y[i];
+                    remove(i);
+                    listener.onDropCaught(dropType, dropX, dropY, c);
+                }
+            }
+        }
+        narrowPhaseTests = tests;
+    }
+
+    // Move the drops of one slice and note which leave and who caught them; touches only that slice's range
+    void updateSlice(int sliceIndex) {
+        Slice slice = slices[sliceIndex];
+        slice.ensureCapacity(slice.to - slice.from);
+        float delta = sliceDelta;
+        float extent = dropSize;
+        Bucket[] catchers = sliceCatchers;
+        int removedCount = 0;
+        int tests = 0;
+        for (int i = slice.to - 1; i >= slice.from; i--) {
+            float lastY = y[i];
+            prevY[i] = lastY;
+            float dropY = lastY - velocity[i] * delta;
+            y[i] = dropY;
+            int caughtBy = -1;
+            if (dropY + extent >= 0) {
+                float dropX = x[i];
+                if (sliceUseGrid) {
+                    long mask = grid.candidates(dropX, dropY);
+                    while (mask != 0) {
+                        int c = Long.numberOfTrailingZeros(mask);
+                        mask &= mask - 1;
+                        tests++;
+                        if (catchers[c].overlaps(dropX, dropY, extent, extent)) {
+                            caughtBy = c;
+                            break;
+                        }
+                    }
+                } else {
+                    for (int c = 0; c < sliceCatcherCount; c++) {
+                        tests++;
+                        if (catchers[c].overlaps(dropX, dropY, extent, extent)) {
+                            caughtBy = c;
+                            break;
+                        }
+                    }
+                }
+                if (caughtBy < 0) {
+                    continue; // Still falling
+                }
+            }
+            slice.removed[removedCount] = i;
+            slice.caughtBy[removedCount] = caughtBy; // -1 when it fell off the bottom
+            removedCount++;
+        }
+        slice.removedCount = removedCount;
+        slice.tests = tests;
+    }
+
+    // One contiguous index range of a sliced update and the drops it lost
+    private static final class Slice {
+        int from, to;
+        int[] removed = new int[0]; // Indices of removed drops, descending
+        int[] caughtBy = new int[0]; // Catcher of each removed drop, or -1 when culled
+        int removedCount;
+        int tests;
+
+        void ensureCapacity(int capacity) {
+            if (removed.length < capacity) {
+                removed = new int[capacity];
+                caughtBy = new int[capacity];
+            }
+        }
+    }
+
+    // Remove the drop at the given index by moving the last drop into its slot
+    public void remove(int i) {
+        typeCounts[type[i]]--;
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevY[i] = prevY[last];
+        velocity[i] = velocity[last];
+        type[i] = type[last];
+    }
+
+    // Remove all drops
+    public void clear() {
+        size = 0;
+        Arrays.fill(typeCounts, 0);
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        type = Arrays.copyOf(type, capacity);
+    }
+
+    public float getDropSize() {
+        return dropSize;
+    }
+
+    // Exact overlap tests run during the last update, for measuring the broadphase
+    public int getNarrowPhaseTests() {
+        return narrowPhaseTests;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count(byte dropType) {
+        return typeCounts[dropType];
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    // Bottom edge blended between the previous and current tick, alpha in [0, 1]
+    public float getY(int i, float alpha) {
+        float from = prevY[i];
+        return from + (y[i] - from) * alpha;
+    }
+
+    public float getVelocity(int i) {
+        return velocity[i];
+    }
+
+    public byte getType(int i) {
+        return type[i];
+    }
+
+    // Backing arrays, valid up to size(); for bulk readers such as renderers, which must not write to them
+    public float[] getXArray() {
+        return x;
+    }
+
+    public float[] getYArray() {
+        return y;
+    }
+
+    public float[] getPrevYArray() {
+        return prevY;
+    }
+
+    public byte[] getTypeArray() {
+        return type;
+    }
+}
@@ -0,0 +1,37 @@
+package com.hat_quest.sim;
+
+// Accumulator that turns variable render frame times into a whole number of fixed simulation ticks
+public class FixedTimestep {
+    private final float step; // Seconds per tick
+    private final float maxFrameTime; // Longer frames are clamped so a hitch can't trigger a burst of ticks
+    private float accumulator; // Unsimulated time carried over to the next frame
+
+    public FixedTimestep(float step, float maxFrameTime) {
+        this.step = step;
+        this.maxFrameTime = maxFrameTime;
+    }
+
+    // Add a frame's elapsed time and return how many ticks to run
+    public int advance(float frameTime) {
+        if (frameTime > maxFrameTime) {
+            frameTime = maxFrameTime;
+        }
+        accumulator += frameTime;
+        int ticks = 0;
+        while (accumulator >= step) {
+            accumulator -= step;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    // How far the render frame is between the last tick and the next, in [0, 1)
+    public float alpha() {
+        return accumulator / step;
+    }
+
+    // Drop any leftover time, e.g. after a pause
+    public void reset() {
+        accumulator = 0;
+    }
+}
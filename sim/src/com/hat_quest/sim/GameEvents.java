@@ -0,0 +1,98 @@
+package com.hat_quest.sim;
+
+// Ring buffer of the gameplay events the simulation produced since it was last drained. Records are primitive
+// fields in parallel arrays allocated up front, so writing one during a tick allocates nothing. The presentation
+// reads the whole batch once per frame (sound, effects, telemetry) and then clears it.
+public class GameEvents {
+    public static final byte CATCH = 0; // A drop landed in the bucket; for enemy drops this cost a life
+    public static final byte BLOCK = 1; // An enemy drop was absorbed by the shield
+    public static final byte MISS = 2; // A drop fell off the bottom uncaught; y is 0
+    public static final byte GAME_OVER = 3; // The last life was lost; drop type and position are unused
+
+    public static final int DEFAULT_CAPACITY = 1024; // Several seconds of events at normal play
+
+    private final int mask; // Capacity - 1, the capacity being a power of two
+    private final byte[] kind;
+    private final byte[] dropType;
+    private final float[] x; // Left edge of the drop
+    private final float[] y; // Bottom edge of the drop
+    private final long[] tick; // World tick the event happened on
+    private int head; // Slot of the oldest event
+    private int size;
+    private long total; // Events written since construction
+    private long dropped; // Events lost because the queue was full
+
+    public GameEvents(int capacity) {
+        int rounded = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = rounded - 1;
+        kind = new byte[rounded];
+        dropType = new byte[rounded];
+        x = new float[rounded];
+        y = new float[rounded];
+        tick = new long[rounded];
+    }
+
+    // Append an event; when the queue is full the new event is counted as dropped and discarded
+    public void add(byte eventKind, byte eventDropType, float eventX, float eventY, long eventTick) {
+        total++;
+        if (size > mask) {
+            dropped++;
+            return;
+        }
+        int slot = (head + size++) & mask;
+        kind[slot] = eventKind;
+        dropType[slot] = eventDropType;
+        x[slot] = eventX;
+        y[slot] = eventY;
+        tick[slot] = eventTick;
+    }
+
+    // Events waiting, read with the getters at index 0 (oldest) to size() - 1
+    public int size() {
+        return size;
+    }
+
+    public byte getKind(int i) {
+        return kind[(head + i) & mask];
+    }
+
+    public byte getDropType(int i) {
+        return dropType[(head + i) & mask];
+    }
+
+    public float getX(int i) {
+        return x[(head + i) & mask];
+    }
+
+    public float getY(int i) {
+        return y[(head + i) & mask];
+    }
+
+    public long getTick(int i) {
+        return tick[(head + i) & mask];
+    }
+
+    // Consume the oldest count events
+    public void remove(int count) {
+        count = Math.min(count, size);
+        head = (head + count) & mask;
+        size -= count;
+    }
+
+    // Consume every waiting event
+    public void clear() {
+        remove(size);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hat_quest.sim;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Runs the simulation with no window, audio or natives, as fast as the CPU allows
+// Usage: HeadlessRunner [ticks] [seed]
+//        HeadlessRunner --replay <file>         play a recorded run and report where it ended
+//        HeadlessRunner --record <file> [seed]  record one random-input run to a file
+// Spawns follow assets/spawns.txt when run from the project root, like the game; set the
+// hatquest.spawns system property to another schedule file, or to "none" for the plain SimConfig settings.
+public class HeadlessRunner {
+    private static final String SPAWNS_PROPERTY = "hatquest.spawns";
+    private static final String DEFAULT_SPAWNS = "assets/spawns.txt";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1 && args[0].equals("--replay")) {
+            replay(args[1]);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--record")) {
+            record(args[1], args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime());
+            return;
+        }
+
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        RandomInput input = new RandomInput(seed);
+        World world = new World(defaultConfig(), input, seed);
+
+        long runs = 0;
+        long totalScore = 0;
+        long events = 0;
+        int peakDrops = 0;
+        long start = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            input.next();
+            world.step();
+            events += world.getEvents().size();
+            world.getEvents().clear(); // Nothing presents them, so just count them
+            peakDrops = Math.max(peakDrops, world.getDrops().size());
+            if (world.isGameOver()) {
+                runs++;
+                totalScore += world.getScore();
+                world.restart();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println("Seed: " + seed);
+        System.out.println("Ticks: " + ticks + " in " + seconds + "s (" + (long) (ticks / seconds) + " ticks/s)");
+        System.out.println("Finished runs: " + runs + ", average score: " + (runs > 0 ? totalScore / runs : 0));
+        System.out.println("Peak live drops: " + peakDrops);
+        System.out.println("Gameplay events: " + events);
+    }
+
+    // Play a replay twice at full speed; both passes must end in the same state
+    private static void replay(String path) throws IOException {
+        Replay replay = Replay.decode(Files.readAllBytes(Paths.get(path)));
+        SimConfig config = defaultConfig();
+        config.ticksPerSecond = replay.getTicksPerSecond();
+
+        long start = System.nanoTime();
+        World first = play(replay, config);
+        long elapsed = System.nanoTime() - start;
+        World second = play(replay, config);
+
+        double seconds = elapsed / 1e9;
+        System.out.println("Replay: " + path + " (seed " + replay.getSeed() + ")");
+        System.out.println("Ticks: " + replay.getLength() + " in " + seconds + "s ("
+            + (long) (replay.getLength() / seconds) + " ticks/s, "
+            + (long) (replay.getLength() / (double) config.ticksPerSecond / seconds) + "x real time)");
+        System.out.println("Score: " + first.getScore() + ", lives: " + first.getLives()
+            + (first.isGameOver() ? ", game over" : ""));
+        boolean deterministic = first.getScore() == second.getScore() && first.getLives() == second.getLives()
+            && first.getBucket().getX() == second.getBucket().getX()
+            && first.getBucket().getY() == second.getBucket().getY()
+            && first.getDrops().size() == second.getDrops().size();
+        System.out.println("Deterministic: " + deterministic);
+        if (!deterministic) {
+            System.exit(1);
+        }
+    }
+
+    private static World play(Replay replay, SimConfig config) {
+        ReplayInput input = new ReplayInput(replay);
+        World world = new World(config, input, replay.getSeed());
+        while (!input.isFinished() && !world.isGameOver()) {
+            input.next();
+            world.step();
+        }
+        return world;
+    }
+
+    private static void record(String path, long seed) throws IOException {
+        SimConfig config = defaultConfig();
+        RandomInput input = new RandomInput(seed);
+        World world = new World(config, input, seed);
+        Replay replay = new Replay(config.ticksPerSecond, world.getRunSeed());
+        world.setRecording(replay);
+        while (!world.isGameOver()) {
+            input.next();
+            world.step();
+        }
+        byte[] bytes = replay.encode();
+        Files.write(Paths.get(path), bytes);
+        System.out.println("Recorded " + replay.getLength() + " ticks, score " + world.getScore()
+            + ", into " + bytes.length + " bytes: " + path);
+    }
+
+    // Default settings with the spawn schedule the game would use
+    static SimConfig defaultConfig() throws IOException {
+        SimConfig config = new SimConfig();
+        String path = System.getProperty(SPAWNS_PROPERTY, DEFAULT_SPAWNS);
+        if (path.equals("none") || (path.equals(DEFAULT_SPAWNS) && !Files.exists(Paths.get(path)))) {
+            return config;
+        }
+        config.spawns = SpawnSchedule.parse(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+        return config;
+    }
+}
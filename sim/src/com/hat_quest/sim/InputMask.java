@@ -0,0 +1,30 @@
+package com.hat_quest.sim;
+
+// Bit flags for one tick of player input, as sampled by World and stored in replays
+public final class InputMask {
+    public static final int LEFT = 1; // A
+    public static final int RIGHT = 1 << 1; // D
+    public static final int JUMP = 1 << 2; // SPACE, pressed this tick
+    public static final int SHIELD = 1 << 3; // F, pressed this tick
+
+    private InputMask() {
+    }
+
+    // Sample every control once; just-pressed controls are consumed by this
+    public static int read(InputSource input) {
+        int mask = 0;
+        if (input.isLeftPressed()) {
+            mask |= LEFT;
+        }
+        if (input.isRightPressed()) {
+            mask |= RIGHT;
+        }
+        if (input.isJumpJustPressed()) {
+            mask |= JUMP;
+        }
+        if (input.isShieldJustPressed()) {
+            mask |= SHIELD;
+        }
+        return mask;
+    }
+}
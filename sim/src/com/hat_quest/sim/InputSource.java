@@ -0,0 +1,12 @@
+package com.hat_quest.sim;
+
+// Player controls as seen by the simulation
+public interface InputSource {
+    boolean isLeftPressed(); // Move the bucket left while held
+
+    boolean isRightPressed(); // Move the bucket right while held
+
+    boolean isJumpJustPressed(); // Jump, once per press
+
+    boolean isShieldJustPressed(); // Activate the shield, once per press
+}
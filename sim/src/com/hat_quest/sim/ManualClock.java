@@ -0,0 +1,23 @@
+package com.hat_quest.sim;
+
+// Clock that only moves when advanced, used by headless runs
+public class ManualClock implements Clock {
+    private long now;
+
+    public ManualClock(long start) {
+        this.now = start;
+    }
+
+    public void set(long nanos) {
+        now = nanos;
+    }
+
+    public void advance(long nanos) {
+        now += nanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+}
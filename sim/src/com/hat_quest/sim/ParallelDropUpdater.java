@@ -0,0 +1,79 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Spreads a DropStore's slices over a fork-join pool. Tasks are created once and reinitialized every tick,
+// so a steady population updates without allocating. JVM only; excluded from the GWT build.
+public class ParallelDropUpdater implements DropStore.SliceExecutor {
+    public static final int DEFAULT_THRESHOLD = 50000; // Below this the fork-join overhead outweighs the split; see ParallelDropBenchmark
+
+    private final ForkJoinPool pool;
+    private final Root root = new Root();
+    private SliceTask[] tasks = new SliceTask[0];
+
+    public ParallelDropUpdater() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelDropUpdater(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void updateSlices(DropStore store, int sliceCount) {
+        if (tasks.length < sliceCount) {
+            SliceTask[] grown = Arrays.copyOf(tasks, sliceCount);
+            for (int s = tasks.length; s < sliceCount; s++) {
+                grown[s] = new SliceTask(s);
+            }
+            tasks = grown;
+        }
+        root.store = store;
+        root.sliceCount = sliceCount;
+        root.reinitialize();
+        pool.invoke(root);
+        root.store = null;
+    }
+
+    // Forks every slice but the first, runs that one itself, then waits for the rest
+    private final class Root extends RecursiveAction {
+        DropStore store;
+        int sliceCount;
+
+        @Override
+        protected void compute() {
+            for (int s = 1; s < sliceCount; s++) {
+                SliceTask task = tasks[s];
+                task.store = store;
+                task.reinitialize();
+                task.fork();
+            }
+            store.updateSlice(0);
+            for (int s = sliceCount - 1; s >= 1; s--) {
+                tasks[s].join();
+                tasks[s].store = null;
+            }
+        }
+    }
+
+    private static final class SliceTask extends RecursiveAction {
+        private final int slice;
+        DropStore store;
+
+        SliceTask(int slice) {
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            store.updateSlice(slice);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hat_quest.sim;
+
+import java.util.Random;
+
+// Input source that mashes the controls at random, used to drive headless soak runs
+public class RandomInput implements InputSource {
+    private final Random random;
+    private int direction; // -1 left, 0 idle, 1 right
+    private boolean jump;
+    private boolean shield;
+
+    public RandomInput(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // Roll the controls for the next step
+    public void next() {
+        if (random.nextInt(30) == 0) {
+            direction = random.nextInt(3) - 1; // Change direction every half second or so
+        }
+        jump = random.nextInt(90) == 0;
+        shield = random.nextInt(600) == 0;
+    }
+
+    @Override
+    public boolean isLeftPressed() {
+        return direction < 0;
+    }
+
+    @Override
+    public boolean isRightPressed() {
+        return direction > 0;
+    }
+
+    @Override
+    public boolean isJumpJustPressed() {
+        return jump;
+    }
+
+    @Override
+    public boolean isShieldJustPressed() {
+        return shield;
+    }
+}
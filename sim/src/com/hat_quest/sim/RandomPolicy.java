@@ -0,0 +1,16 @@
+package com.hat_quest.sim;
+
+// Mashes the controls like the soak runner's RandomInput; a floor for what any real policy should beat
+public class RandomPolicy implements BucketPolicy {
+    private final RandomInput input;
+
+    public RandomPolicy(long seed) {
+        this.input = new RandomInput(seed);
+    }
+
+    @Override
+    public int nextInput(World world) {
+        input.next();
+        return InputMask.read(input);
+    }
+}
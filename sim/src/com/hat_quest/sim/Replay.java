@@ -0,0 +1,196 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+
+// One recorded run: the seed it started from plus the input of every tick.
+// Input is stored as changes only, each a varint tick delta since the previous change followed by the new mask,
+// so long stretches of held or idle keys cost nothing.
+//
+// File layout: "BJRP", version byte, varint ticks per second, 8 byte seed, varint tick count, varint change count,
+// then the changes.
+public class Replay {
+    private static final int MAGIC = 0x424A5250; // "BJRP"
+    private static final int VERSION = 2; // 2: bonus spawns are drawn ahead, so version 1 runs no longer replay
+
+    private final int ticksPerSecond;
+    private final long seed;
+    private int length; // Ticks recorded
+    private int[] changeTicks = new int[64]; // Tick at which each change takes effect
+    private byte[] changeMasks = new byte[64]; // Input mask from that tick on
+    private int changes;
+    private int lastMask; // Mask in effect at the end of the recording
+
+    public Replay(int ticksPerSecond, long seed) {
+        this.ticksPerSecond = ticksPerSecond;
+        this.seed = seed;
+    }
+
+    // Append the input of the next tick
+    public void record(int mask) {
+        if (mask != lastMask) {
+            if (changes == changeTicks.length) {
+                changeTicks = Arrays.copyOf(changeTicks, changes * 2);
+                changeMasks = Arrays.copyOf(changeMasks, changes * 2);
+            }
+            changeTicks[changes] = length;
+            changeMasks[changes] = (byte) mask;
+            changes++;
+            lastMask = mask;
+        }
+        length++;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    int getChangeCount() {
+        return changes;
+    }
+
+    int getChangeTick(int change) {
+        return changeTicks[change];
+    }
+
+    int getChangeMask(int change) {
+        return changeMasks[change];
+    }
+
+    public byte[] encode() {
+        ByteWriter out = new ByteWriter(16 + changes * 3);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarInt(ticksPerSecond);
+        out.writeLong(seed);
+        out.writeVarInt(length);
+        out.writeVarInt(changes);
+        int previousTick = 0;
+        for (int i = 0; i < changes; i++) {
+            out.writeVarInt(changeTicks[i] - previousTick);
+            out.writeByte(changeMasks[i]);
+            previousTick = changeTicks[i];
+        }
+        return out.toByteArray();
+    }
+
+    public static Replay decode(byte[] bytes) {
+        ByteReader in = new ByteReader(bytes);
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a replay file");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported replay version: " + version);
+        }
+        Replay replay = new Replay(in.readVarInt(), in.readLong());
+        int length = in.readVarInt();
+        int changes = in.readVarInt();
+        int tick = 0;
+        for (int i = 0; i < changes; i++) {
+            tick += in.readVarInt();
+            int mask = in.readByte();
+            while (replay.length < tick) {
+                replay.record(replay.lastMask);
+            }
+            replay.record(mask);
+        }
+        while (replay.length < length) {
+            replay.record(replay.lastMask);
+        }
+        return replay;
+    }
+
+    // Growable big-endian byte buffer
+    private static final class ByteWriter {
+        private byte[] bytes;
+        private int size;
+
+        ByteWriter(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte(value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        // Unsigned LEB128, seven bits per byte
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] bytes;
+        private int position;
+
+        ByteReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Replay file is truncated");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        int readInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in replay file");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hat_quest.sim;
+
+// Input source that plays back a recorded run tick by tick
+public class ReplayInput implements InputSource {
+    private final Replay replay;
+    private int tick; // Ticks played so far
+    private int nextChange; // Next change to apply
+    private int mask; // Input of the current tick
+
+    public ReplayInput(Replay replay) {
+        this.replay = replay;
+    }
+
+    // Move to the next recorded tick; call once before each World.step()
+    public void next() {
+        while (nextChange < replay.getChangeCount() && replay.getChangeTick(nextChange) <= tick) {
+            mask = replay.getChangeMask(nextChange);
+            nextChange++;
+        }
+        tick++;
+    }
+
+    // True once every recorded tick has been played
+    public boolean isFinished() {
+        return tick >= replay.getLength();
+    }
+
+    // Start again from the first tick
+    public void rewind() {
+        tick = 0;
+        nextChange = 0;
+        mask = 0;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    @Override
+    public boolean isLeftPressed() {
+        return (mask & InputMask.LEFT) != 0;
+    }
+
+    @Override
+    public boolean isRightPressed() {
+        return (mask & InputMask.RIGHT) != 0;
+    }
+
+    @Override
+    public boolean isJumpJustPressed() {
+        return (mask & InputMask.JUMP) != 0;
+    }
+
+    @Override
+    public boolean isShieldJustPressed() {
+        return (mask & InputMask.SHIELD) != 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hat_quest.sim;
+
+// The bucket's shield: a status effect that absorbs enemy drops, then cools down before it can be raised again
+public class Shield {
+    private final StatusEffects effects;
+    private final int effect; // Id in effects
+
+    public Shield(StatusEffects effects, SimConfig config) {
+        this.effects = effects;
+        this.effect = effects.register(config.shieldDuration, config.shieldCooldown, StatusEffects.IGNORE, 1);
+    }
+
+    public boolean isActive() {
+        return effects.isActive(effect);
+    }
+
+    public void activate() {
+        effects.activate(effect);
+    }
+
+    public boolean canActivate() {
+        return effects.canActivate(effect);
+    }
+
+    // Whole seconds of cooldown left, 0 when not cooling down
+    public long getCooldownRemaining() {
+        return effects.getCooldownRemaining(effect) / 1000000000L;
+    }
+}
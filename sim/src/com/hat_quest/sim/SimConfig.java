@@ -0,0 +1,68 @@
+package com.hat_quest.sim;
+
+// Tunable rules of the simulation, kept in one place so headless runs can vary them
+public class SimConfig {
+    public int ticksPerSecond = 60; // Fixed simulation rate, independent of the render frame rate
+
+    public float worldWidth = 800; // Playfield width in pixels
+    public float worldHeight = 480; // Playfield height in pixels
+
+    public float bucketSize = 64; // Width and height of the bucket
+    public float bucketStartX = 368; // Initial bucket position
+    public float bucketStartY = 20;
+    public float bucketSpeed = 300; // Horizontal speed in pixels per second
+    public float gravity = 1000; // Downward acceleration in pixels per second squared
+    public float jumpHeight = 600; // Upward velocity applied on jump
+    public int maxJumps = 2; // Jumps allowed before landing again
+
+    public float dropSize = 64; // Width and height of every drop
+    public float dropVelocity = 200; // Fall speed in pixels per second
+    public long rainInterval = 1000000000L; // 1 second between raindrops, in nanoseconds
+    public long enemyInterval = 1500000000L; // 1.5 seconds between enemy drop rolls, in nanoseconds
+    public float enemyChance = 0.5f; // Chance an enemy drop spawns on each roll
+    public float bonusChance = 0.001f; // Chance a bonus drop spawns on each tick
+    public SpawnSchedule spawns = SpawnSchedule.EMPTY; // Difficulty curves and waves on top of the settings above
+
+    public long shieldDuration = 10 * 1000000000L; // 10 seconds, in nanoseconds
+    public long shieldCooldown = 120 * 1000000000L; // 120 seconds, in nanoseconds
+
+    public int startLives = 3; // Lives at the start of a run
+    public int maxLives = 3; // Bonus drops never raise lives above this
+
+    // Simulated seconds per tick
+    public float stepSeconds() {
+        return 1f / ticksPerSecond;
+    }
+
+    // Simulated nanoseconds per tick
+    public long stepNanos() {
+        return 1000000000L / ticksPerSecond;
+    }
+
+    // Copy every setting into a new config
+    public SimConfig copy() {
+        SimConfig c = new SimConfig();
+        c.ticksPerSecond = ticksPerSecond;
+        c.worldWidth = worldWidth;
+        c.worldHeight = worldHeight;
+        c.bucketSize = bucketSize;
+        c.bucketStartX = bucketStartX;
+        c.bucketStartY = bucketStartY;
+        c.bucketSpeed = bucketSpeed;
+        c.gravity = gravity;
+        c.jumpHeight = jumpHeight;
+        c.maxJumps = maxJumps;
+        c.dropSize = dropSize;
+        c.dropVelocity = dropVelocity;
+        c.rainInterval = rainInterval;
+        c.enemyInterval = enemyInterval;
+        c.enemyChance = enemyChance;
+        c.bonusChance = bonusChance;
+        c.spawns = spawns;
+        c.shieldDuration = shieldDuration;
+        c.shieldCooldown = shieldCooldown;
+        c.startLives = startLives;
+        c.maxLives = maxLives;
+        return c;
+    }
+}
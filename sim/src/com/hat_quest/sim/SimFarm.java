@@ -0,0 +1,305 @@
+package com.hat_quest.sim;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Plays thousands of headless games across every core and summarizes each parameter set, for balancing.
+// JVM only; excluded from the GWT build.
+//
+// Usage: SimFarm [--games N] [--policy chase|random|idle|<class name>] [--threads N] [--max-seconds S]
+//                [--seed S] [--csv FILE] [--set name=v1,v2,...]...
+// Every --set adds a swept parameter and the farm runs the cartesian product of all of them. Intervals,
+// durations and cooldowns are in seconds; names match the SimConfig fields.
+// Example: SimFarm --games 10000 --set shieldCooldown=60,120 --set rainInterval=0.8,1
+// Spawn curves and waves come from assets/spawns.txt, as for HeadlessRunner.
+public class SimFarm {
+    private static final int GAMES_PER_TASK = 16; // Games a work-stealing task runs before splitting no further
+
+    public static void main(String[] args) throws IOException {
+        int games = 1000;
+        String policy = "chase";
+        int threads = Runtime.getRuntime().availableProcessors();
+        float maxSeconds = 600;
+        long seed = 1;
+        String csvPath = null;
+        List<String> sweeps = new ArrayList<>();
+        for (int a = 0; a < args.length; a++) {
+            String arg = args[a];
+            if (a + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++a];
+            switch (arg) {
+                case "--games": games = Integer.parseInt(value); break;
+                case "--policy": policy = value; break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--max-seconds": maxSeconds = Float.parseFloat(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--csv": csvPath = value; break;
+                case "--set": sweeps.add(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        List<ParameterSet> sets = expand(HeadlessRunner.defaultConfig(), sweeps);
+        int maxTicks = (int) (maxSeconds * new SimConfig().ticksPerSecond);
+        System.out.println("Playing " + games + " games for each of " + sets.size() + " parameter sets with policy '"
+            + policy + "' on " + threads + " threads, capped at " + maxSeconds + "s each");
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long totalTicks = 0;
+        for (int s = 0; s < sets.size(); s++) {
+            ParameterSet set = sets.get(s);
+            set.results = new GameResult[games];
+            pool.invoke(new GameBatch(set, policy, seed + (long) s * games, maxTicks, 0, games));
+            set.summarize(maxTicks);
+            totalTicks += set.totalTicks;
+            System.out.println(set.report());
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%d games, %d ticks in %.1fs (%.0f ticks/s)",
+            games * sets.size(), totalTicks, seconds, totalTicks / seconds));
+
+        if (csvPath != null) {
+            writeCsv(csvPath, sets);
+            System.out.println("Summary written to " + csvPath);
+        }
+    }
+
+    // One game's outcome
+    private static final class GameResult {
+        int ticks; // Ticks survived, the cap when the game never ended
+        boolean survived; // Still alive at the cap
+        int score;
+        final int[] spawned = new int[DropStore.TYPE_COUNT];
+        final int[] caught = new int[DropStore.TYPE_COUNT];
+        int shielded; // Enemy drops absorbed by the shield
+    }
+
+    // Plays one game with a fresh world and policy
+    private static GameResult play(SimConfig config, BucketPolicy policy, long seed, int maxTicks) {
+        GameResult result = new GameResult();
+        World world = new World(config, null, seed);
+        GameEvents events = world.getEvents();
+        while (!world.isGameOver() && result.ticks < maxTicks) {
+            world.step(policy.nextInput(world));
+            result.ticks++;
+            for (int i = 0, n = events.size(); i < n; i++) {
+                byte kind = events.getKind(i);
+                if (kind == GameEvents.CATCH || kind == GameEvents.BLOCK) {
+                    result.caught[events.getDropType(i)]++;
+                }
+                if (kind == GameEvents.BLOCK) {
+                    result.shielded++;
+                }
+            }
+            events.clear();
+        }
+        result.survived = !world.isGameOver();
+        result.score = world.getScore();
+        for (byte type = 0; type < DropStore.TYPE_COUNT; type++) {
+            result.spawned[type] = world.getSpawnCount(type);
+        }
+        return result;
+    }
+
+    // Plays a range of games, halving the range until it is small enough to run directly
+    private static final class GameBatch extends RecursiveAction {
+        private final ParameterSet set;
+        private final String policy;
+        private final long seed;
+        private final int maxTicks;
+        private final int from, to;
+
+        GameBatch(ParameterSet set, String policy, long seed, int maxTicks, int from, int to) {
+            this.set = set;
+            this.policy = policy;
+            this.seed = seed;
+            this.maxTicks = maxTicks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GAMES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GameBatch(set, policy, seed, maxTicks, from, middle),
+                    new GameBatch(set, policy, seed, maxTicks, middle, to));
+                return;
+            }
+            for (int game = from; game < to; game++) {
+                long gameSeed = seed + game; // Same seeds for every set, so sets differ only by their parameters
+                set.results[game] = play(set.config, createPolicy(policy, gameSeed), gameSeed, maxTicks);
+            }
+        }
+    }
+
+    // Built-in policies by name, or any BucketPolicy class with a (long seed) or no-argument constructor
+    static BucketPolicy createPolicy(String name, long seed) {
+        switch (name) {
+            case "chase": return new ChaseDodgePolicy();
+            case "random": return new RandomPolicy(seed);
+            case "idle": return world -> 0;
+            default: break;
+        }
+        try {
+            Class<?> type = Class.forName(name);
+            try {
+                Constructor<?> seeded = type.getConstructor(long.class);
+                return (BucketPolicy) seeded.newInstance(seed);
+            } catch (NoSuchMethodException e) {
+                return (BucketPolicy) type.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown policy " + name, e);
+        }
+    }
+
+    // One combination of swept parameter values and its aggregated results
+    private static final class ParameterSet {
+        final String label;
+        final SimConfig config;
+        GameResult[] results;
+
+        long totalTicks;
+        float survivalMean, survivalP50, survivalP90; // Seconds
+        float survivedRate; // Share of games still alive at the cap
+        float scoreMean;
+        int scoreP10, scoreP50, scoreP90, scoreMax;
+        final float[] catchRate = new float[DropStore.TYPE_COUNT]; // Caught / spawned per type
+        float shieldRate; // Share of caught enemy drops the shield absorbed
+
+        ParameterSet(String label, SimConfig config) {
+            this.label = label;
+            this.config = config;
+        }
+
+        void summarize(int maxTicks) {
+            int games = results.length;
+            int[] ticks = new int[games];
+            int[] scores = new int[games];
+            long[] spawned = new long[DropStore.TYPE_COUNT];
+            long[] caught = new long[DropStore.TYPE_COUNT];
+            long shielded = 0;
+            int survived = 0;
+            long scoreSum = 0;
+            for (int g = 0; g < games; g++) {
+                GameResult result = results[g];
+                ticks[g] = result.ticks;
+                scores[g] = result.score;
+                totalTicks += result.ticks;
+                scoreSum += result.score;
+                if (result.survived) {
+                    survived++;
+                }
+                for (int t = 0; t < DropStore.TYPE_COUNT; t++) {
+                    spawned[t] += result.spawned[t];
+                    caught[t] += result.caught[t];
+                }
+                shielded += result.shielded;
+            }
+            Arrays.sort(ticks);
+            Arrays.sort(scores);
+            float tickSeconds = config.stepSeconds();
+            survivalMean = totalTicks * tickSeconds / games;
+            survivalP50 = percentile(ticks, 0.5f) * tickSeconds;
+            survivalP90 = percentile(ticks, 0.9f) * tickSeconds;
+            survivedRate = survived / (float) games;
+            scoreMean = scoreSum / (float) games;
+            scoreP10 = percentile(scores, 0.1f);
+            scoreP50 = percentile(scores, 0.5f);
+            scoreP90 = percentile(scores, 0.9f);
+            scoreMax = scores[games - 1];
+            for (int t = 0; t < DropStore.TYPE_COUNT; t++) {
+                catchRate[t] = spawned[t] > 0 ? caught[t] / (float) spawned[t] : 0;
+            }
+            shieldRate = caught[DropStore.ENEMY] > 0 ? shielded / (float) caught[DropStore.ENEMY] : 0;
+            results = null; // Only the summary is kept
+        }
+
+        String report() {
+            return String.format(Locale.ROOT,
+                "[%s]%n  survival s: mean %.1f  p50 %.1f  p90 %.1f  alive at cap %.1f%%%n"
+                    + "  score: mean %.1f  p10 %d  p50 %d  p90 %d  max %d%n"
+                    + "  caught: rain %.1f%%  enemy %.1f%% (%.1f%% shielded)  bonus %.1f%%",
+                label, survivalMean, survivalP50, survivalP90, survivedRate * 100,
+                scoreMean, scoreP10, scoreP50, scoreP90, scoreMax,
+                catchRate[DropStore.RAIN] * 100, catchRate[DropStore.ENEMY] * 100, shieldRate * 100,
+                catchRate[DropStore.BONUS] * 100);
+        }
+    }
+
+    private static int percentile(int[] sorted, float p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+
+    // Cartesian product of every --set sweep, starting from the default config
+    private static List<ParameterSet> expand(SimConfig defaults, List<String> sweeps) {
+        List<ParameterSet> sets = new ArrayList<>();
+        sets.add(new ParameterSet("defaults", defaults));
+        boolean first = true;
+        for (String sweep : sweeps) {
+            int equals = sweep.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected name=v1,v2,... but got " + sweep);
+            }
+            String name = sweep.substring(0, equals);
+            String[] values = sweep.substring(equals + 1).split(",");
+            List<ParameterSet> next = new ArrayList<>();
+            for (ParameterSet base : sets) {
+                for (String value : values) {
+                    SimConfig config = base.config.copy();
+                    apply(config, name, Double.parseDouble(value));
+                    String label = (first ? "" : base.label + " ") + name + "=" + value;
+                    next.add(new ParameterSet(label, config));
+                }
+            }
+            sets = next;
+            first = false;
+        }
+        return sets;
+    }
+
+    private static void apply(SimConfig config, String name, double value) {
+        switch (name) {
+            case "rainInterval": config.rainInterval = (long) (value * 1e9); break;
+            case "enemyInterval": config.enemyInterval = (long) (value * 1e9); break;
+            case "enemyChance": config.enemyChance = (float) value; break;
+            case "bonusChance": config.bonusChance = (float) value; break;
+            case "shieldDuration": config.shieldDuration = (long) (value * 1e9); break;
+            case "shieldCooldown": config.shieldCooldown = (long) (value * 1e9); break;
+            case "gravity": config.gravity = (float) value; break;
+            case "jumpHeight": config.jumpHeight = (float) value; break;
+            case "maxJumps": config.maxJumps = (int) value; break;
+            case "bucketSpeed": config.bucketSpeed = (float) value; break;
+            case "dropVelocity": config.dropVelocity = (float) value; break;
+            case "startLives": config.startLives = (int) value; break;
+            case "maxLives": config.maxLives = (int) value; break;
+            default: throw new IllegalArgumentException("Unknown parameter " + name);
+        }
+    }
+
+    private static void writeCsv(String path, List<ParameterSet> sets) throws IOException {
+        try (PrintWriter out = new PrintWriter(path, "UTF-8")) {
+            out.println("parameters,survival_mean_s,survival_p50_s,survival_p90_s,alive_at_cap,"
+                + "score_mean,score_p10,score_p50,score_p90,score_max,rain_catch_rate,enemy_hit_rate,shield_rate,bonus_catch_rate");
+            for (ParameterSet set : sets) {
+                out.println(String.format(Locale.ROOT, "\"%s\",%.2f,%.2f,%.2f,%.4f,%.2f,%d,%d,%d,%d,%.4f,%.4f,%.4f,%.4f",
+                    set.label, set.survivalMean, set.survivalP50, set.survivalP90, set.survivedRate,
+                    set.scoreMean, set.scoreP10, set.scoreP50, set.scoreP90, set.scoreMax,
+                    set.catchRate[DropStore.RAIN], set.catchRate[DropStore.ENEMY], set.shieldRate,
+                    set.catchRate[DropStore.BONUS]));
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hat_quest.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Difficulty curves and scripted waves for spawning, parsed from a text file (assets/spawns.txt in the game).
+// Curves scale the SimConfig spawn interval or chance of a drop type over the run; waves put a burst of drops
+// on a single tick, once or repeating. Immutable once parsed, so configs can share one.
+//
+// Format, one entry per line, # starts a comment, times in seconds from the start of the run:
+//   curve <rain|enemy|bonus> <interval|chance> <time>:<factor> ...
+//       linear between points, held before the first and after the last
+//   wave <time> <rain|enemy|bonus> <count> [every <seconds>]
+// Bonus drops have a chance per tick rather than an interval, so only their chance curve has an effect.
+public class SpawnSchedule {
+    public static final SpawnSchedule EMPTY = new SpawnSchedule();
+
+    private static final String[] TYPE_NAMES = {"rain", "enemy", "bonus"}; // Indexed by drop type
+
+    private final float[][] intervalCurves = new float[DropStore.TYPE_COUNT][]; // time, factor pairs, or null
+    private final float[][] chanceCurves = new float[DropStore.TYPE_COUNT][];
+    private float[] waveTimes = new float[0];
+    private byte[] waveTypes = new byte[0];
+    private int[] waveCounts = new int[0];
+    private float[] waveRepeats = new float[0]; // Seconds between repeats, 0 for a single wave
+
+    private SpawnSchedule() {
+    }
+
+    // Parse a schedule; throws IllegalArgumentException naming the line of the first mistake
+    public static SpawnSchedule parse(String text) {
+        SpawnSchedule schedule = new SpawnSchedule();
+        List<float[]> waves = new ArrayList<>(); // time, type, count, repeat
+        String[] lines = text.split("\n");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n];
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            try {
+                if (words[0].equals("curve") && words.length >= 4) {
+                    byte type = parseType(words[1]);
+                    float[] points = new float[(words.length - 3) * 2];
+                    for (int w = 3; w < words.length; w++) {
+                        int colon = words[w].indexOf(':');
+                        if (colon < 0) {
+                            throw new IllegalArgumentException("expected time:factor but got " + words[w]);
+                        }
+                        points[(w - 3) * 2] = Float.parseFloat(words[w].substring(0, colon));
+                        points[(w - 3) * 2 + 1] = Float.parseFloat(words[w].substring(colon + 1));
+                        if (w > 3 && points[(w - 3) * 2] <= points[(w - 4) * 2]) {
+                            throw new IllegalArgumentException("curve times must increase");
+                        }
+                    }
+                    if (words[2].equals("interval")) {
+                        schedule.intervalCurves[type] = points;
+                    } else if (words[2].equals("chance")) {
+                        schedule.chanceCurves[type] = points;
+                    } else {
+                        throw new IllegalArgumentException("expected interval or chance but got " + words[2]);
+                    }
+                } else if (words[0].equals("wave") && (words.length == 4 || words.length == 6 && words[4].equals("every"))) {
+                    float repeat = words.length == 6 ? Float.parseFloat(words[5]) : 0;
+                    if (words.length == 6 && repeat <= 0) {
+                        throw new IllegalArgumentException("wave repeat must be positive");
+                    }
+                    waves.add(new float[] {Float.parseFloat(words[1]), parseType(words[2]), Integer.parseInt(words[3]), repeat});
+                } else {
+                    throw new IllegalArgumentException("expected curve or wave entry");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Spawn schedule line " + (n + 1) + ": bad number in '" + line + "'");
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Spawn schedule line " + (n + 1) + ": " + e.getMessage());
+            }
+        }
+        int count = waves.size();
+        schedule.waveTimes = new float[count];
+        schedule.waveTypes = new byte[count];
+        schedule.waveCounts = new int[count];
+        schedule.waveRepeats = new float[count];
+        for (int w = 0; w < count; w++) {
+            float[] wave = waves.get(w);
+            schedule.waveTimes[w] = wave[0];
+            schedule.waveTypes[w] = (byte) wave[1];
+            schedule.waveCounts[w] = (int) wave[2];
+            schedule.waveRepeats[w] = wave[3];
+        }
+        return schedule;
+    }
+
+    private static byte parseType(String name) {
+        for (byte type = 0; type < TYPE_NAMES.length; type++) {
+            if (TYPE_NAMES[type].equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown drop type " + name);
+    }
+
+    // Factor applied to the type's spawn interval at the given second of the run
+    public float intervalFactor(byte type, float seconds) {
+        return evaluate(intervalCurves[type], seconds);
+    }
+
+    // Factor applied to the type's spawn chance at the given second of the run
+    public float chanceFactor(byte type, float seconds) {
+        return evaluate(chanceCurves[type], seconds);
+    }
+
+    // Second at which the piece of the type's chance curve holding the given second ends, or infinity when the
+    // curve holds its last value from there on
+    public float chanceSegmentEnd(byte type, float seconds) {
+        float[] points = chanceCurves[type];
+        if (points != null) {
+            for (int i = 0; i < points.length; i += 2) {
+                if (seconds < points[i]) {
+                    return points[i];
+                }
+            }
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    private static float evaluate(float[] points, float seconds) {
+        if (points == null) {
+            return 1;
+        }
+        if (seconds <= points[0]) {
+            return points[1];
+        }
+        for (int i = 2; i < points.length; i += 2) {
+            if (seconds < points[i]) {
+                float t = (seconds - points[i - 2]) / (points[i] - points[i - 2]);
+                return points[i - 1] + (points[i + 1] - points[i - 1]) * t;
+            }
+        }
+        return points[points.length - 1];
+    }
+
+    public int getWaveCount() {
+        return waveTimes.length;
+    }
+
+    // Second of the run the wave first fires
+    public float getWaveTime(int wave) {
+        return waveTimes[wave];
+    }
+
+    public byte getWaveType(int wave) {
+        return waveTypes[wave];
+    }
+
+    public int getWaveSize(int wave) {
+        return waveCounts[wave];
+    }
+
+    // Seconds between repeats, 0 when the wave fires once
+    public float getWaveRepeat(int wave) {
+        return waveRepeats[wave];
+    }
+}
@@ -0,0 +1,216 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+
+// Timed status effects (shield, and later slow-mo, magnet and the like) on the simulation clock, which only moves
+// when the world is stepped, so effects stop while the game is paused. Each effect is registered once with its
+// duration, cooldown and stacking rule. Running and cooling effects wait in a min-heap on their next deadline,
+// so update() only looks at the earliest one and costs the same however many effects are running.
+public class StatusEffects {
+    // What activating an effect that is already running does
+    public static final int IGNORE = 0; // Nothing; it cannot be activated again until it ends
+    public static final int REFRESH = 1; // Restart the duration
+    public static final int EXTEND = 2; // Add a full duration to what is left
+    public static final int STACK = 3; // Add a stack, up to the maximum, and restart the duration
+
+    private static final byte IDLE = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte COOLING = 2; // Ended, waiting out its cooldown
+
+    private final Clock clock;
+    private int count;
+    private long[] duration = new long[4];
+    private long[] cooldown = new long[4];
+    private int[] stacking = new int[4];
+    private int[] maxStacks = new int[4];
+
+    private byte[] state = new byte[4];
+    private int[] stacks = new int[4];
+    private long[] deadline = new long[4]; // End of the effect or its cooldown; when idle, ready once the clock passes it
+
+    // Binary min-heap of running and cooling effects keyed by deadline, with each effect's heap position
+    private int[] heap = new int[4];
+    private int[] heapIndex = new int[4]; // -1 when not in the heap
+    private int heapSize;
+
+    public StatusEffects(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Register an effect and return its id; nanosecond times, maxStacks only matters for STACK
+    public int register(long durationNanos, long cooldownNanos, int stackingRule, int stackLimit) {
+        if (count == duration.length) {
+            grow();
+        }
+        int id = count++;
+        duration[id] = durationNanos;
+        cooldown[id] = cooldownNanos;
+        stacking[id] = stackingRule;
+        maxStacks[id] = Math.max(1, stackLimit);
+        heapIndex[id] = -1;
+        reset(id);
+        return id;
+    }
+
+    // End every effect and make each ready on the next tick
+    public void reset() {
+        heapSize = 0;
+        for (int id = 0; id < count; id++) {
+            heapIndex[id] = -1;
+            reset(id);
+        }
+    }
+
+    private void reset(int id) {
+        state[id] = IDLE;
+        stacks[id] = 0;
+        deadline[id] = clock.nanoTime();
+    }
+
+    public boolean canActivate(int id) {
+        switch (state[id]) {
+            case IDLE: return clock.nanoTime() > deadline[id];
+            case ACTIVE: return stacking[id] != IGNORE;
+            default: return false;
+        }
+    }
+
+    // Start the effect or apply its stacking rule; false when it cannot be activated now
+    public boolean activate(int id) {
+        if (!canActivate(id)) {
+            return false;
+        }
+        long now = clock.nanoTime();
+        if (state[id] == ACTIVE) {
+            switch (stacking[id]) {
+                case EXTEND:
+                    deadline[id] += duration[id];
+                    break;
+                case STACK:
+                    stacks[id] = Math.min(stacks[id] + 1, maxStacks[id]);
+                    deadline[id] = now + duration[id];
+                    break;
+                default:
+                    deadline[id] = now + duration[id];
+                    break;
+            }
+            siftDown(heapIndex[id]); // Deadlines only move later
+            return true;
+        }
+        state[id] = ACTIVE;
+        stacks[id] = 1;
+        deadline[id] = now + duration[id];
+        push(id);
+        return true;
+    }
+
+    // End effects and cooldowns whose deadline has passed; call once per tick
+    public void update() {
+        long now = clock.nanoTime();
+        while (heapSize > 0 && now > deadline[heap[0]]) {
+            int id = pop();
+            if (state[id] == ACTIVE && cooldown[id] > 0) {
+                state[id] = COOLING;
+                stacks[id] = 0;
+                deadline[id] = now + cooldown[id];
+                push(id);
+            } else {
+                state[id] = IDLE; // Ready at once: the deadline has already passed
+                stacks[id] = 0;
+            }
+        }
+    }
+
+    public boolean isActive(int id) {
+        return state[id] == ACTIVE;
+    }
+
+    public int getStacks(int id) {
+        return stacks[id];
+    }
+
+    // Nanoseconds until the effect ends, 0 when it is not running
+    public long getRemaining(int id) {
+        return state[id] == ACTIVE ? Math.max(0, deadline[id] - clock.nanoTime()) : 0;
+    }
+
+    // Nanoseconds until the cooldown is over, 0 when the effect is not cooling down
+    public long getCooldownRemaining(int id) {
+        return state[id] == COOLING ? Math.max(0, deadline[id] - clock.nanoTime()) : 0;
+    }
+
+    // Effects running or cooling down
+    public int getPendingCount() {
+        return heapSize;
+    }
+
+    private void push(int id) {
+        heap[heapSize] = id;
+        heapIndex[id] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int id = heap[0];
+        heapIndex[id] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return id;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (deadline[heap[parent]] <= deadline[heap[i]]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = i * 2 + 1;
+            int right = left + 1;
+            if (left < heapSize && deadline[heap[left]] < deadline[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < heapSize && deadline[heap[right]] < deadline[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int idA = heap[a];
+        int idB = heap[b];
+        heap[a] = idB;
+        heap[b] = idA;
+        heapIndex[idB] = a;
+        heapIndex[idA] = b;
+    }
+
+    private void grow() {
+        int capacity = duration.length * 2;
+        duration = Arrays.copyOf(duration, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        stacking = Arrays.copyOf(stacking, capacity);
+        maxStacks = Arrays.copyOf(maxStacks, capacity);
+        state = Arrays.copyOf(state, capacity);
+        stacks = Arrays.copyOf(stacks, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+    }
+}
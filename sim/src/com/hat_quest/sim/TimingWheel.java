@@ -0,0 +1,129 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+
+// Hashed timing wheel of integer ids keyed to simulation ticks. Scheduling is O(1) and advancing one tick only
+// visits that tick's slot; an entry due more than one turn ahead waits in its slot until its turn comes round.
+// advance() must be called for every tick in order.
+public class TimingWheel {
+    private final int mask; // Slot count - 1, the slot count being a power of two
+    private final int[] slotHead; // First entry of each slot, -1 when empty
+    private final int[] slotTail;
+
+    // Entries, linked per slot and through the free list
+    private int[] next;
+    private long[] due;
+    private int[] ids;
+    private int freeHead = -1;
+    private int allocated; // Entries ever handed out; the rest of the arrays is untouched
+    private int size; // Entries scheduled
+
+    private int[] fired = new int[16]; // Ids due on the last advanced tick, ascending
+    private int firedCount;
+
+    public TimingWheel(int slots, int initialCapacity) {
+        int rounded = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.mask = rounded - 1;
+        slotHead = new int[rounded];
+        slotTail = new int[rounded];
+        Arrays.fill(slotHead, -1);
+        Arrays.fill(slotTail, -1);
+        int capacity = Math.max(4, initialCapacity);
+        next = new int[capacity];
+        due = new long[capacity];
+        ids = new int[capacity];
+    }
+
+    // Fire id on the given tick, which must be later than the last advanced one
+    public void schedule(int id, long tick) {
+        int entry;
+        if (freeHead >= 0) {
+            entry = freeHead;
+            freeHead = next[entry];
+        } else {
+            if (allocated == ids.length) {
+                grow();
+            }
+            entry = allocated++;
+        }
+        ids[entry] = id;
+        due[entry] = tick;
+        next[entry] = -1;
+        int slot = (int) tick & mask;
+        if (slotTail[slot] < 0) {
+            slotHead[slot] = entry;
+        } else {
+            next[slotTail[slot]] = entry;
+        }
+        slotTail[slot] = entry;
+        size++;
+    }
+
+    // Take every entry due on tick out of the wheel; returns how many, read in ascending id order with getFired()
+    public int advance(long tick) {
+        firedCount = 0;
+        int slot = (int) tick & mask;
+        int previous = -1;
+        int entry = slotHead[slot];
+        while (entry >= 0) {
+            int following = next[entry];
+            if (due[entry] == tick) {
+                // Unlink and free
+                if (previous < 0) {
+                    slotHead[slot] = following;
+                } else {
+                    next[previous] = following;
+                }
+                if (slotTail[slot] == entry) {
+                    slotTail[slot] = previous;
+                }
+                next[entry] = freeHead;
+                freeHead = entry;
+                size--;
+                addFired(ids[entry]);
+            } else {
+                previous = entry; // Due on a later turn
+            }
+            entry = following;
+        }
+        return firedCount;
+    }
+
+    // Insertion sort keeps same-tick order independent of when each entry was scheduled
+    private void addFired(int id) {
+        if (firedCount == fired.length) {
+            fired = Arrays.copyOf(fired, firedCount * 2);
+        }
+        int i = firedCount++;
+        while (i > 0 && fired[i - 1] > id) {
+            fired[i] = fired[i - 1];
+            i--;
+        }
+        fired[i] = id;
+    }
+
+    public int getFired(int i) {
+        return fired[i];
+    }
+
+    // Remove every entry
+    public void clear() {
+        Arrays.fill(slotHead, -1);
+        Arrays.fill(slotTail, -1);
+        freeHead = -1;
+        allocated = 0;
+        size = 0;
+        firedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        due = Arrays.copyOf(due, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+    }
+}
@@ -0,0 +1,360 @@
+package com.hat_quest.sim;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Complete game simulation: bucket, drops, shield, bonus and scoring, with no rendering or platform code
+public class World implements DropStore.CatchListener {
+    // Phases of a tick, in the order step() runs them; beginTick() must come first
+    public static final int PHASE_INPUT = 0; // Steer the bucket, start a jump, raise the shield
+    public static final int PHASE_MOVEMENT = 1; // Bucket gravity and landing
+    public static final int PHASE_DROPS = 2; // Drop movement, catches and despawning
+    public static final int PHASE_STATUS = 3; // Status effect expiry and cooldowns
+    public static final int PHASE_SPAWN = 4; // New drops along the top
+    public static final int PHASE_COUNT = 5;
+
+    private final SimConfig config;
+    private final ManualClock clock; // Simulation time, advanced one tick per step
+    private final InputSource input;
+    private final Random random;
+    private final Bucket bucket;
+    private final DropStore drops;
+    private final StatusEffects effects; // Timed power-ups on the simulation clock
+    private final Shield shield;
+    private final GameEvents events; // What happened since the presentation last drained it
+    private Replay recording; // Receives every tick's input while recording, otherwise null
+
+    private int score;
+    private int lives;
+    private boolean gameOver;
+    private final int[] spawnCounts = new int[DropStore.TYPE_COUNT]; // Drops spawned this run, per type
+
+    // Spawning runs off a timing wheel: each drop type's next roll or drawn spawn and each scripted wave is an
+    // entry due on a tick, so a tick only handles what is due and nothing is polled
+    private static final int WHEEL_SLOTS = 256; // About four seconds at 60 ticks per second
+    private static final int WAVE_IDS = DropStore.TYPE_COUNT; // Wave w is scheduled as id WAVE_IDS + w
+    private static final long MAX_DRAW_TICKS = Integer.MAX_VALUE; // Furthest ahead a chance stream is drawn
+    private final SpawnSchedule spawns;
+    private final TimingWheel spawnWheel;
+    // Types with a chance per tick and no interval (bonus drops) are drawn ahead instead: the wheel entry is
+    // either a candidate spawn, kept with the tick's chance over the peak it was drawn with, or a redraw
+    private final boolean[] streamCandidate = new boolean[DropStore.TYPE_COUNT];
+    private final float[] streamPeak = new float[DropStore.TYPE_COUNT];
+
+    private final float stepSeconds;
+    private final long stepNanos;
+    private long tick; // Ticks stepped since construction
+    private int tickButtons; // InputMask bits of the tick in progress
+    private long runSeed; // Seed the current run started from
+
+    public World(SimConfig config, InputSource input, long seed) {
+        this.config = config;
+        this.clock = new ManualClock(0);
+        this.stepSeconds = config.stepSeconds();
+        this.stepNanos = config.stepNanos();
+        this.input = input;
+        this.random = new Random();
+        this.bucket = new Bucket(config);
+        this.drops = new DropStore(64, config.dropSize, config.worldWidth, config.worldHeight);
+        this.effects = new StatusEffects(clock);
+        this.shield = new Shield(effects, config);
+        this.events = new GameEvents(GameEvents.DEFAULT_CAPACITY);
+        this.spawns = config.spawns;
+        this.spawnWheel = new TimingWheel(WHEEL_SLOTS, WAVE_IDS + spawns.getWaveCount());
+        restart(seed);
+    }
+
+    // Advance the simulation by one fixed tick, reading the controls from the input source
+    public void step() {
+        if (gameOver) {
+            return;
+        }
+        step(InputMask.read(input)); // Sampled once so a replay sees exactly what the tick saw
+    }
+
+    // Advance the simulation by one fixed tick with the given InputMask bits; the input source is not read,
+    // so it may be null when every tick is driven this way
+    public void step(int buttons) {
+        if (gameOver) {
+            return;
+        }
+        beginTick(buttons);
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            runPhase(phase);
+        }
+    }
+
+    // Start a tick with the controls read from the input source; follow with every phase in order.
+    // Not for use once the game is over
+    public void beginTick() {
+        beginTick(InputMask.read(input));
+    }
+
+    // Start a tick with the given InputMask bits: advance the clock and record the input
+    public void beginTick(int buttons) {
+        tickButtons = buttons;
+        tick++;
+        clock.advance(stepNanos);
+        if (recording != null) {
+            recording.record(buttons);
+        }
+    }
+
+    // Run one phase of the tick in progress; running every phase in order is exactly step()
+    public void runPhase(int phase) {
+        float delta = stepSeconds;
+        switch (phase) {
+            case PHASE_INPUT:
+                bucket.savePrevious();
+                bucket.handleInput(tickButtons, delta);
+                if ((tickButtons & InputMask.SHIELD) != 0 && shield.canActivate()) {
+                    shield.activate();
+                }
+                break;
+            case PHASE_MOVEMENT:
+                bucket.update(delta);
+                break;
+            case PHASE_DROPS:
+                drops.update(delta, bucket, this);
+                break;
+            case PHASE_STATUS:
+                effects.update();
+                break;
+            case PHASE_SPAWN:
+                spawnDue();
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Spawn whatever is due this tick and schedule its next turn
+    private void spawnDue() {
+        int due = spawnWheel.advance(tick);
+        for (int i = 0; i < due; i++) {
+            int id = spawnWheel.getFired(i); // Ascending, so same-tick rolls always use the random stream in one order
+            if (id < WAVE_IDS) {
+                rollStream((byte) id);
+            } else {
+                spawnWave(id - WAVE_IDS);
+            }
+        }
+    }
+
+    // Each type rolls on its own interval: rain always spawns, enemy drops by chance, bonus drops by a chance
+    // per tick; all scaled by the schedule's difficulty curves
+    private void rollStream(byte type) {
+        float seconds = clock.nanoTime() / 1e9f;
+        if (streamInterval(type) == 0) {
+            if (streamCandidate[type]) {
+                float chance = streamChance(type) * spawns.chanceFactor(type, seconds);
+                if (chance >= streamPeak[type] || random.nextFloat() * streamPeak[type] < chance) {
+                    spawnDrop(type);
+                }
+            }
+            drawStream(type, seconds);
+            return;
+        }
+        float chance = streamChance(type) * spawns.chanceFactor(type, seconds);
+        if (chance >= 1 || random.nextFloat() < chance) {
+            spawnDrop(type);
+        }
+        scheduleStream(type, seconds);
+    }
+
+    private void spawnWave(int wave) {
+        byte type = spawns.getWaveType(wave);
+        for (int n = spawns.getWaveSize(wave); n > 0; n--) {
+            spawnDrop(type);
+        }
+        float repeat = spawns.getWaveRepeat(wave);
+        if (repeat > 0) {
+            spawnWheel.schedule(WAVE_IDS + wave, tick + Math.max(1, Math.round(repeat * config.ticksPerSecond)));
+        }
+    }
+
+    // Next roll of a type: the first tick more than its interval after this one
+    private void scheduleStream(byte type, float seconds) {
+        if (streamInterval(type) == 0) {
+            drawStream(type, seconds);
+            return;
+        }
+        long interval = (long) (streamInterval(type) * (double) spawns.intervalFactor(type, seconds));
+        spawnWheel.schedule(type, tick + interval / stepNanos + 1);
+    }
+
+    // Draw the next spawn of a type with a chance per tick, up to where its chance curve turns. With p the
+    // curve's peak over the ticks up to there, the first success of a trial per tick is 1 + floor(ln U / ln(1 - p))
+    // ticks away; keeping that candidate with chance / p gives every tick its own chance, as rolling each tick
+    // would. When the draw lands past the turn, every tick up to it failed, and the next segment is drawn there
+    private void drawStream(byte type, float seconds) {
+        long span = MAX_DRAW_TICKS;
+        float end = spawns.chanceSegmentEnd(type, seconds);
+        if (end < Float.POSITIVE_INFINITY) {
+            span = Math.max(1, Math.min(MAX_DRAW_TICKS, (long) Math.ceil((end - seconds) * (double) config.ticksPerSecond)));
+        }
+        float peak = streamChance(type) * Math.max(spawns.chanceFactor(type, seconds + config.stepSeconds()),
+            spawns.chanceFactor(type, seconds + span * config.stepSeconds()));
+        if (end < Float.POSITIVE_INFINITY) {
+            peak = Math.max(peak, streamChance(type) * spawns.chanceFactor(type, end));
+        }
+        long gap = span + 1;
+        if (peak >= 1) {
+            gap = 1;
+        } else if (peak > 0) {
+            double draw = 1 + Math.floor(Math.log(1 - random.nextDouble()) / Math.log1p(-peak));
+            gap = (long) Math.min(draw, span + 1);
+        }
+        streamCandidate[type] = gap <= span;
+        streamPeak[type] = peak;
+        spawnWheel.schedule(type, tick + Math.min(gap, span));
+    }
+
+    private long streamInterval(byte type) {
+        switch (type) {
+            case DropStore.RAIN: return config.rainInterval;
+            case DropStore.ENEMY: return config.enemyInterval;
+            default: return 0;
+        }
+    }
+
+    private float streamChance(byte type) {
+        switch (type) {
+            case DropStore.ENEMY: return config.enemyChance;
+            case DropStore.BONUS: return config.bonusChance;
+            default: return 1;
+        }
+    }
+
+    // Spawn a drop of the given type at a random position along the top of the playfield
+    public void spawnDrop(byte type) {
+        float x = random.nextFloat() * (config.worldWidth - config.dropSize);
+        drops.spawn(type, x, config.worldHeight, config.dropVelocity);
+        spawnCounts[type]++;
+    }
+
+    // Score and lives change inside the tick, so the outcome never depends on when the events are drained
+    @Override
+    public void onDropCaught(byte type, float x, float y, int catcher) {
+        byte kind = GameEvents.CATCH;
+        switch (type) {
+            case DropStore.RAIN:
+                score++;
+                break;
+            case DropStore.ENEMY:
+                if (shield.isActive()) {
+                    kind = GameEvents.BLOCK;
+                } else {
+                    lives--;
+                }
+                break;
+            case DropStore.BONUS:
+                if (lives < config.maxLives) {
+                    lives++;
+                }
+                break;
+            default:
+                break;
+        }
+        events.add(kind, type, x, y, tick);
+        if (lives <= 0 && !gameOver) {
+            gameOver = true;
+            events.add(GameEvents.GAME_OVER, (byte) 0, 0, 0, tick);
+        }
+    }
+
+    @Override
+    public void onDropMissed(byte type, float x) {
+        events.add(GameEvents.MISS, type, x, 0, tick);
+    }
+
+    // Start a new run seeded from the current one, so a chain of runs is reproducible from the first seed
+    public void restart() {
+        restart(random.nextLong());
+    }
+
+    // Reset everything for a new run; the same seed and input always replay the same run
+    public void restart(long seed) {
+        runSeed = seed;
+        random.setSeed(seed);
+        clock.set(0);
+        Arrays.fill(spawnCounts, 0);
+        events.clear();
+        drops.clear();
+        bucket.resetPosition();
+        effects.reset();
+        score = 0;
+        lives = config.startLives;
+        gameOver = false;
+        spawnDrop(DropStore.RAIN);
+        spawnDrop(DropStore.ENEMY);
+        spawnWheel.clear();
+        for (byte type = 0; type < DropStore.TYPE_COUNT; type++) {
+            scheduleStream(type, 0);
+        }
+        for (int wave = 0; wave < spawns.getWaveCount(); wave++) {
+            spawnWheel.schedule(WAVE_IDS + wave, tick + Math.max(1, Math.round(spawns.getWaveTime(wave) * config.ticksPerSecond)));
+        }
+    }
+
+    // Events since the last drain; the reader clears them once it has handled the batch
+    public GameEvents getEvents() {
+        return events;
+    }
+
+    // Record the input of every following tick into the given replay, or stop recording with null
+    public void setRecording(Replay recording) {
+        this.recording = recording;
+    }
+
+    public long getRunSeed() {
+        return runSeed;
+    }
+
+    public SimConfig getConfig() {
+        return config;
+    }
+
+    public Bucket getBucket() {
+        return bucket;
+    }
+
+    public DropStore getDrops() {
+        return drops;
+    }
+
+    public Shield getShield() {
+        return shield;
+    }
+
+    // Every timed effect, for registering new power-ups alongside the shield
+    public StatusEffects getEffects() {
+        return effects;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    // Simulation time since the run started, which stands still while the game is paused
+    public long getRunNanos() {
+        return clock.nanoTime();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    // Drops of the given type spawned since the run started
+    public int getSpawnCount(byte type) {
+        return spawnCounts[type];
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}